@@ -2,6 +2,7 @@ package alternate.current.command;
 
 import com.mojang.brigadier.Command;
 import com.mojang.brigadier.CommandDispatcher;
+import com.mojang.brigadier.arguments.BoolArgumentType;
 import com.mojang.brigadier.arguments.StringArgumentType;
 import com.mojang.brigadier.builder.LiteralArgumentBuilder;
 import com.mojang.brigadier.context.CommandContext;
@@ -53,6 +54,30 @@ public class AlternateCurrentCommand {
 					argument("updateOrder", StringArgumentType.word()).
 					suggests((context, suggestionBuilder) -> SharedSuggestionProvider.suggest(UPDATE_ORDERS, suggestionBuilder)).
 					executes(context -> setUpdateOrder(context.getSource(), parseUpdateOrder(context, "updateOrder"))))).
+			then(Commands.
+				literal("persistentGraph").
+				executes(context -> queryPersistentGraph(context.getSource())).
+				then(Commands.
+					argument("enabled", BoolArgumentType.bool()).
+					executes(context -> setPersistentGraph(context.getSource(), BoolArgumentType.getBool(context, "enabled"))))).
+			then(Commands.
+				literal("neighborUpdateElision").
+				executes(context -> queryNeighborUpdateElision(context.getSource())).
+				then(Commands.
+					argument("enabled", BoolArgumentType.bool()).
+					executes(context -> setNeighborUpdateElision(context.getSource(), BoolArgumentType.getBool(context, "enabled"))))).
+			then(Commands.
+				literal("externalPowerCache").
+				executes(context -> queryExternalPowerCache(context.getSource())).
+				then(Commands.
+					argument("enabled", BoolArgumentType.bool()).
+					executes(context -> setExternalPowerCache(context.getSource(), BoolArgumentType.getBool(context, "enabled"))))).
+			then(Commands.
+				literal("metrics").
+				executes(context -> queryMetrics(context.getSource())).
+				then(Commands.
+					literal("reset").
+					executes(context -> resetMetrics(context.getSource())))).
 			then(Commands.
 				literal("resetProfiler").
 				requires(source -> AlternateCurrentMod.DEBUG).
@@ -115,6 +140,93 @@ public class AlternateCurrentCommand {
 		return Command.SINGLE_SUCCESS;
 	}
 
+	private static int queryPersistentGraph(CommandSourceStack source) {
+		ServerLevel level = source.getLevel();
+		WireHandler wireHandler = ((IServerLevel) level).alternate_current$getWireHandler();
+
+		String state = wireHandler.getConfig().getPersistentGraph() ? "enabled" : "disabled";
+		source.sendSuccess(() -> Component.literal(String.format("Persistent graph is currently %s", state)), false);
+
+		return Command.SINGLE_SUCCESS;
+	}
+
+	private static int setPersistentGraph(CommandSourceStack source, boolean enabled) {
+		ServerLevel level = source.getLevel();
+		WireHandler wireHandler = ((IServerLevel) level).alternate_current$getWireHandler();
+
+		wireHandler.getConfig().setPersistentGraph(enabled);
+
+		String state = wireHandler.getConfig().getPersistentGraph() ? "enabled" : "disabled";
+		source.sendSuccess(() -> Component.literal(String.format("persistent graph has been %s!", state)), true);
+
+		return Command.SINGLE_SUCCESS;
+	}
+
+	private static int queryNeighborUpdateElision(CommandSourceStack source) {
+		ServerLevel level = source.getLevel();
+		WireHandler wireHandler = ((IServerLevel) level).alternate_current$getWireHandler();
+
+		String state = wireHandler.getConfig().getNeighborUpdateElision() ? "enabled" : "disabled";
+		source.sendSuccess(() -> Component.literal(String.format("Neighbor update elision is currently %s", state)), false);
+
+		return Command.SINGLE_SUCCESS;
+	}
+
+	private static int setNeighborUpdateElision(CommandSourceStack source, boolean enabled) {
+		ServerLevel level = source.getLevel();
+		WireHandler wireHandler = ((IServerLevel) level).alternate_current$getWireHandler();
+
+		wireHandler.getConfig().setNeighborUpdateElision(enabled);
+
+		String state = wireHandler.getConfig().getNeighborUpdateElision() ? "enabled" : "disabled";
+		source.sendSuccess(() -> Component.literal(String.format("neighbor update elision has been %s!", state)), true);
+
+		return Command.SINGLE_SUCCESS;
+	}
+
+	private static int queryExternalPowerCache(CommandSourceStack source) {
+		ServerLevel level = source.getLevel();
+		WireHandler wireHandler = ((IServerLevel) level).alternate_current$getWireHandler();
+
+		String state = wireHandler.getConfig().getExternalPowerCache() ? "enabled" : "disabled";
+		source.sendSuccess(() -> Component.literal(String.format("External power cache is currently %s", state)), false);
+
+		return Command.SINGLE_SUCCESS;
+	}
+
+	private static int setExternalPowerCache(CommandSourceStack source, boolean enabled) {
+		ServerLevel level = source.getLevel();
+		WireHandler wireHandler = ((IServerLevel) level).alternate_current$getWireHandler();
+
+		wireHandler.getConfig().setExternalPowerCache(enabled);
+
+		String state = wireHandler.getConfig().getExternalPowerCache() ? "enabled" : "disabled";
+		source.sendSuccess(() -> Component.literal(String.format("external power cache has been %s!", state)), true);
+
+		return Command.SINGLE_SUCCESS;
+	}
+
+	private static int queryMetrics(CommandSourceStack source) {
+		ServerLevel level = source.getLevel();
+		WireHandler wireHandler = ((IServerLevel) level).alternate_current$getWireHandler();
+
+		for (String line : wireHandler.getMetrics().summarize()) {
+			source.sendSuccess(() -> Component.literal(line), false);
+		}
+
+		return Command.SINGLE_SUCCESS;
+	}
+
+	private static int resetMetrics(CommandSourceStack source) {
+		ServerLevel level = source.getLevel();
+		WireHandler wireHandler = ((IServerLevel) level).alternate_current$getWireHandler();
+
+		wireHandler.getMetrics().reset();
+		source.sendSuccess(() -> Component.literal("metrics have been reset!"), true);
+
+		return Command.SINGLE_SUCCESS;
+	}
+
 	private static int resetProfiler(CommandSourceStack source) {
 		source.sendSuccess(() -> Component.literal("profiler results have been cleared!"), true);
 
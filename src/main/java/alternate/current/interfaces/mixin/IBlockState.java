@@ -0,0 +1,7 @@
+package alternate.current.interfaces.mixin;
+
+public interface IBlockState {
+
+	int alternate_current$getId();
+
+}
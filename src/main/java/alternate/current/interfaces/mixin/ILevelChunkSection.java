@@ -0,0 +1,15 @@
+package alternate.current.interfaces.mixin;
+
+public interface ILevelChunkSection {
+
+	int alternate_current$getModCount();
+
+	/**
+	 * Return the number of signal sources other than redstone wire in this
+	 * section, or {@code -1} if they have not been counted yet.
+	 */
+	int alternate_current$getSignalSources();
+
+	void alternate_current$setSignalSources(int count);
+
+}
@@ -0,0 +1,26 @@
+package alternate.current.mixin;
+
+import org.spongepowered.asm.mixin.Mixin;
+
+import alternate.current.interfaces.mixin.IBlockState;
+
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.state.BlockBehaviour;
+import net.minecraft.world.level.block.state.BlockState;
+
+@Mixin(BlockBehaviour.BlockStateBase.class)
+public class BlockStateBaseMixin implements IBlockState {
+
+	private int alternate_current$id = -1;
+
+	@Override
+	public int alternate_current$getId() {
+		if (alternate_current$id < 0) {
+			// block states are registered once during bootstrap,
+			// so the id can be cached as soon as it is known
+			alternate_current$id = Block.getId((BlockState)(Object)this);
+		}
+
+		return alternate_current$id;
+	}
+}
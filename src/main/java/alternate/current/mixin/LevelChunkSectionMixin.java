@@ -0,0 +1,74 @@
+package alternate.current.mixin;
+
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+
+import alternate.current.interfaces.mixin.ILevelChunkSection;
+import alternate.current.wire.WireHandler;
+
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+
+@Mixin(LevelChunkSection.class)
+public class LevelChunkSectionMixin implements ILevelChunkSection {
+
+	/** The number of block state changes made to this section. */
+	private int alternate_current$modCount;
+	/**
+	 * The number of signal sources other than redstone wire in this section.
+	 * These are only counted once they are asked for, and kept up to date
+	 * after that.
+	 */
+	private int alternate_current$signalSources = -1;
+
+	@Inject(
+		method = "setBlockState(IIILnet/minecraft/world/level/block/state/BlockState;Z)Lnet/minecraft/world/level/block/state/BlockState;",
+		at = @At(
+			value = "RETURN"
+		)
+	)
+	private void alternate_current$onSetBlockState(int x, int y, int z, BlockState state, boolean useLocks, CallbackInfoReturnable<BlockState> cir) {
+		BlockState prevState = cir.getReturnValue();
+
+		if (prevState != state) {
+			alternate_current$modCount++;
+
+			if (alternate_current$signalSources >= 0) {
+				if (WireHandler.isSignalSource(prevState)) {
+					alternate_current$signalSources--;
+				}
+				if (WireHandler.isSignalSource(state)) {
+					alternate_current$signalSources++;
+				}
+			}
+		}
+	}
+
+	@Inject(
+		method = "recalcBlockCounts()V",
+		at = @At(
+			value = "HEAD"
+		)
+	)
+	private void alternate_current$onRecalcBlockCounts(CallbackInfo ci) {
+		alternate_current$signalSources = -1;
+	}
+
+	@Override
+	public int alternate_current$getModCount() {
+		return alternate_current$modCount;
+	}
+
+	@Override
+	public int alternate_current$getSignalSources() {
+		return alternate_current$signalSources;
+	}
+
+	@Override
+	public void alternate_current$setSignalSources(int count) {
+		alternate_current$signalSources = count;
+	}
+}
@@ -0,0 +1,34 @@
+package alternate.current.mixin;
+
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+
+import alternate.current.interfaces.mixin.IServerLevel;
+import alternate.current.wire.WireHandler;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.state.BlockState;
+
+@Mixin(Level.class)
+public class LevelMixin {
+
+	@Inject(
+		method = "setBlock(Lnet/minecraft/core/BlockPos;Lnet/minecraft/world/level/block/state/BlockState;II)Z",
+		at = @At(
+			value = "HEAD"
+		)
+	)
+	private void alternate_current$onSetBlock(BlockPos pos, BlockState state, int flags, int recursionLeft, CallbackInfoReturnable<Boolean> cir) {
+		if ((Object)this instanceof IServerLevel) {
+			WireHandler wireHandler = ((IServerLevel)this).alternate_current$getWireHandler();
+
+			// the wire handler is not yet available while the level is constructed
+			if (wireHandler != null) {
+				wireHandler.onBlockChanged(pos);
+			}
+		}
+	}
+}
@@ -17,6 +17,7 @@ import net.minecraft.server.level.ServerLevel;
 import net.minecraft.world.RandomSequences;
 import net.minecraft.world.level.CustomSpawner;
 import net.minecraft.world.level.Level;
+import net.minecraft.world.level.chunk.LevelChunk;
 import net.minecraft.world.level.dimension.LevelStem;
 import net.minecraft.world.level.storage.LevelStorageSource;
 import net.minecraft.world.level.storage.ServerLevelData;
@@ -36,6 +37,16 @@ public class ServerLevelMixin implements IServerLevel {
 		this.wireHandler = new WireHandler((ServerLevel)(Object)this, storage);
 	}
 
+	@Inject(
+		method = "unload",
+		at = @At(
+			value = "HEAD"
+		)
+	)
+	private void alternate_current$onUnloadChunk(LevelChunk chunk, CallbackInfo ci) {
+		wireHandler.onChunkUnloaded(chunk.getPos());
+	}
+
 	@Override
 	public WireHandler alternate_current$getWireHandler() {
 		return wireHandler;
@@ -1,6 +1,8 @@
 package alternate.current.util.profiler;
 
+import java.lang.management.ManagementFactory;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Stack;
 
@@ -11,10 +13,27 @@ import alternate.current.AlternateCurrentMod;
 public class ACProfiler implements Profiler {
 	
 	private static final Logger LOGGER = AlternateCurrentMod.LOGGER;
+	private static final com.sun.management.ThreadMXBean THREADS;
+	
+	static {
+		java.lang.management.ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+		
+		if (threads instanceof com.sun.management.ThreadMXBean && ((com.sun.management.ThreadMXBean)threads).isThreadAllocatedMemorySupported()) {
+			THREADS = (com.sun.management.ThreadMXBean)threads;
+		} else {
+			THREADS = null;
+		}
+	}
 	
 	private final Stack<Integer> indexStack;
 	private final List<String> locations;
 	private final List<Long> times;
+	/** Bytes allocated by the thread when each location was pushed, then the bytes allocated in it. */
+	private long[] allocations;
+	/** Bytes allocated by the profiler itself when each location was pushed. */
+	private long[] overheads;
+	/** Bytes allocated by the profiler itself, which are not counted towards any location. */
+	private long overhead;
 	
 	private boolean started;
 	
@@ -22,6 +41,8 @@ public class ACProfiler implements Profiler {
 		this.indexStack = new Stack<>();
 		this.locations = new ArrayList<>();
 		this.times = new ArrayList<>();
+		this.allocations = new long[16];
+		this.overheads = new long[16];
 	}
 	
 	@Override
@@ -32,6 +53,7 @@ public class ACProfiler implements Profiler {
 			indexStack.clear();
 			locations.clear();
 			times.clear();
+			overhead = 0L;
 			started = true;
 			
 			push("total");
@@ -48,7 +70,11 @@ public class ACProfiler implements Profiler {
 				LOGGER.warn("profiling ended before stack was fully popped, did something go wrong?");
 			}
 			
-			ProfilerResults.add(locations, times);
+			ProfilerResults.add(locations, times, allocations);
+			
+			if (allocations[0] > 0) {
+				LOGGER.warn(String.format("profiled section allocated %d bytes!", allocations[0]));
+			}
 		} else {
 			LOGGER.warn("profiling already ended!");
 		}
@@ -57,9 +83,22 @@ public class ACProfiler implements Profiler {
 	@Override
 	public void push(String location) {
 		if (started) {
-			indexStack.add(times.size());
+			long allocated = allocatedBytes();
+			int index = times.size();
+			
+			if (index == allocations.length) {
+				allocations = Arrays.copyOf(allocations, index << 1);
+				overheads = Arrays.copyOf(overheads, index << 1);
+			}
+			
+			indexStack.add(index);
 			locations.add(location);
 			times.add(System.nanoTime());
+			
+			long now = allocatedBytes();
+			overhead += now - allocated;
+			allocations[index] = now;
+			overheads[index] = overhead;
 		} else {
 			LOGGER.error("cannot push " + location + " as profiling hasn't started!");
 		}
@@ -68,15 +107,19 @@ public class ACProfiler implements Profiler {
 	@Override
 	public void pop() {
 		if (started) {
+			long allocated = allocatedBytes();
+			long endTime = System.nanoTime();
 			Integer index = indexStack.pop();
 			
 			if (index == null) {
 				LOGGER.error("no element to pop!");
 			} else {
 				long startTime = times.get(index);
-				long endTime = System.nanoTime();
 				times.set(index, endTime - startTime);
+				allocations[index] = (allocated - allocations[index]) - (overhead - overheads[index]);
 			}
+			
+			overhead += allocatedBytes() - allocated;
 		} else {
 			LOGGER.error("cannot pop as profiling hasn't started!");
 		}
@@ -87,4 +130,8 @@ public class ACProfiler implements Profiler {
 		pop();
 		push(location);
 	}
+	
+	private static long allocatedBytes() {
+		return (THREADS == null) ? 0L : THREADS.getCurrentThreadAllocatedBytes();
+	}
 }
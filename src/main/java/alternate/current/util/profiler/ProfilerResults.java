@@ -14,22 +14,29 @@ public class ProfilerResults {
 	private static final Logger LOGGER = AlternateCurrentMod.LOGGER;
 	
 	private static final Map<String, Long> RESULTS = new LinkedHashMap<>();
+	private static final Map<String, Long> ALLOCATIONS = new LinkedHashMap<>();
 	private static long totalTime;
+	private static long totalAllocated;
 	
 	public static void clear() {
 		RESULTS.clear();
+		ALLOCATIONS.clear();
 		totalTime = 0;
+		totalAllocated = 0;
 	}
 	
-	public static void add(List<String> locations, List<Long> times) {
+	public static void add(List<String> locations, List<Long> times, long[] allocations) {
 		long total = times.get(0);
 		totalTime += total;
+		totalAllocated += allocations[0];
 		
 		for (int index = 1; index < locations.size(); index++) {
 			String location = locations.get(index);
 			long time = times.get(index);
+			long allocated = allocations[index];
 			
 			RESULTS.compute(location, (l, t) -> t == null ? time : t + time);
+			ALLOCATIONS.compute(location, (l, b) -> b == null ? allocated : b + allocated);
 		}
 	}
 	
@@ -37,13 +44,14 @@ public class ProfilerResults {
 		LOGGER.info("------------------------------------------------------");
 		LOGGER.info("..... Alternate Current Profiler Session Results .....");
 		
-		LOGGER.info("total: " + totalTime);
+		LOGGER.info(String.format("total: %d (%d bytes allocated)", totalTime, totalAllocated));
 		
 		for (Entry<String, Long> entry : RESULTS.entrySet()) {
 			String loc = entry.getKey();
 			long time = entry.getValue();
+			long allocated = ALLOCATIONS.get(loc);
 			
-			LOGGER.info(String.format("%s: %d (~%d%%)", loc, time, (100 * time / totalTime)));
+			LOGGER.info(String.format("%s: %d (~%d%%) (%d bytes allocated)", loc, time, (100 * time / totalTime), allocated));
 		}
 	}
 }
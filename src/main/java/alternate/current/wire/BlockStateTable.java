@@ -0,0 +1,207 @@
+package alternate.current.wire;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import alternate.current.interfaces.mixin.IBlockState;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.util.RandomSource;
+import net.minecraft.world.level.EmptyBlockGetter;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.LevelReader;
+import net.minecraft.world.level.ScheduledTickAccess;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.RedStoneWireBlock;
+import net.minecraft.world.level.block.state.BlockBehaviour;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.redstone.Orientation;
+import net.minecraft.world.level.redstone.Redstone;
+
+/**
+ * A table of the properties of every block state that the WireHandler cares
+ * about, indexed by block state id. This saves a round of virtual calls each
+ * time a node is updated.
+ *
+ * <p>
+ * Whether a block state is a redstone conductor can in theory depend on its
+ * position in the level. For block states where that cannot be ruled out, the
+ * table only marks the conductor property as positional, and it must be
+ * queried from the block state itself.
+ *
+ * <p>
+ * Blocks that do not override {@code neighborChanged} or {@code updateShape}
+ * ignore block updates or shape updates altogether. These are found by looking
+ * for an override in the class hierarchy of each block.
+ *
+ * <p>
+ * The table is built the first time it is used. By then the block state
+ * registry is frozen, since wire handlers only exist in server levels.
+ *
+ * @author Space Walker
+ */
+class BlockStateTable {
+
+	static final int CONDUCTOR   = 0b00000001;
+	static final int SOURCE      = 0b00000010;
+	static final int AIR         = 0b00000100;
+	static final int WIRE        = 0b00001000;
+	/** Block updates to this block state have an effect. */
+	static final int REACTS      = 0b00010000;
+	/** The conductor flag cannot be trusted and must be queried per position. */
+	static final int POSITIONAL  = 0b00100000;
+	/** The block does not override neighborChanged. */
+	static final int INERT       = 0b01000000;
+	/** The block does not override updateShape. */
+	static final int SHAPE_INERT = 0b10000000;
+
+	private static final BlockMethod NEIGHBOR_CHANGED = new BlockMethod(void.class, BlockState.class, Level.class, BlockPos.class, Block.class, Orientation.class, boolean.class);
+	private static final BlockMethod UPDATE_SHAPE = new BlockMethod(BlockState.class, BlockState.class, LevelReader.class, ScheduledTickAccess.class, BlockPos.class, Direction.class, BlockPos.class, BlockState.class, RandomSource.class);
+
+	/**
+	 * Check whether the given block state is a signal source other than
+	 * redstone wire.
+	 */
+	static boolean isSignalSource(BlockState state) {
+		return (flags(state) & (SOURCE | WIRE)) == SOURCE;
+	}
+
+	static int flags(BlockState state) {
+		int id = ((IBlockState)state).alternate_current$getId();
+		return (id >= 0 && id < Holder.FLAGS.length) ? Holder.FLAGS[id] : computeFlags(state, false);
+	}
+
+	/**
+	 * Return the given wire block state with the given power level.
+	 */
+	static BlockState withPower(BlockState state, int power) {
+		int id = ((IBlockState)state).alternate_current$getId();
+		BlockState[] states = (id >= 0 && id < Holder.WIRE_STATES.length) ? Holder.WIRE_STATES[id] : null;
+
+		return (states == null) ? state.setValue(RedStoneWireBlock.POWER, power) : states[power];
+	}
+
+	private static int computeFlags(BlockState state, boolean trusted) {
+		int flags = 0;
+
+		if (trusted && isPositionIndependent(state)) {
+			if (state.isRedstoneConductor(EmptyBlockGetter.INSTANCE, BlockPos.ZERO)) {
+				flags |= CONDUCTOR;
+			}
+		} else {
+			flags |= POSITIONAL;
+		}
+		if (state.isSignalSource()) {
+			flags |= SOURCE;
+		}
+		if (state.isAir()) {
+			flags |= AIR;
+		} else {
+			flags |= REACTS;
+
+			if (!NEIGHBOR_CHANGED.isOverriddenBy(state.getBlock())) {
+				flags |= INERT;
+			}
+		}
+		if (!UPDATE_SHAPE.isOverriddenBy(state.getBlock())) {
+			flags |= SHAPE_INERT;
+		}
+		if (state.is(Blocks.REDSTONE_WIRE)) {
+			flags |= WIRE;
+		}
+
+		return flags;
+	}
+
+	/**
+	 * Vanilla blocks determine whether they are conductors from their shape, and
+	 * only a few blocks have shapes that can change based on their surroundings.
+	 * Modded blocks could do anything, so they are not trusted.
+	 */
+	private static boolean isPositionIndependent(BlockState state) {
+		return !state.hasBlockEntity()
+			&& !state.hasDynamicShape()
+			&& "minecraft".equals(BuiltInRegistries.BLOCK.getKey(state.getBlock()).getNamespace());
+	}
+
+	/**
+	 * A method of {@link BlockBehaviour} that blocks may override. Method names
+	 * are remapped at runtime, so overrides are matched by signature instead.
+	 */
+	private static class BlockMethod {
+
+		private final Class<?> returnType;
+		private final Class<?>[] parameterTypes;
+		private final Map<Class<?>, Boolean> overriddenBy;
+
+		BlockMethod(Class<?> returnType, Class<?>... parameterTypes) {
+			this.returnType = returnType;
+			this.parameterTypes = parameterTypes;
+			this.overriddenBy = new IdentityHashMap<>();
+		}
+
+		synchronized boolean isOverriddenBy(Block block) {
+			return overriddenBy.computeIfAbsent(block.getClass(), this::findOverride);
+		}
+
+		private boolean findOverride(Class<?> clazz) {
+			try {
+				for (; clazz != null && clazz != Block.class && clazz != BlockBehaviour.class; clazz = clazz.getSuperclass()) {
+					for (Method method : clazz.getDeclaredMethods()) {
+						if (!Modifier.isStatic(method.getModifiers())
+							&& method.getReturnType() == returnType
+							&& Arrays.equals(method.getParameterTypes(), parameterTypes)) {
+							return true;
+						}
+					}
+				}
+			} catch (LinkageError e) {
+				// some modded blocks reference classes that are not present on
+				// the server; assume the worst
+				return true;
+			}
+
+			return false;
+		}
+	}
+
+	private static class Holder {
+
+		private static final int[] FLAGS;
+		private static final BlockState[][] WIRE_STATES;
+
+		static {
+			int size = Block.BLOCK_STATE_REGISTRY.size();
+
+			FLAGS = new int[size];
+			WIRE_STATES = new BlockState[size][];
+
+			for (int id = 0; id < size; id++) {
+				BlockState state = Block.BLOCK_STATE_REGISTRY.byId(id);
+
+				if (state == null) {
+					FLAGS[id] = POSITIONAL;
+					continue;
+				}
+
+				FLAGS[id] = computeFlags(state, true);
+
+				if ((FLAGS[id] & WIRE) != 0) {
+					BlockState[] states = new BlockState[Redstone.SIGNAL_MAX + 1];
+
+					for (int power = Redstone.SIGNAL_MIN; power <= Redstone.SIGNAL_MAX; power++) {
+						states[power] = state.setValue(RedStoneWireBlock.POWER, power);
+					}
+
+					WIRE_STATES[id] = states;
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,100 @@
+package alternate.current.wire;
+
+import it.unimi.dsi.fastutil.longs.Long2IntLinkedOpenHashMap;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.ChunkPos;
+
+/**
+ * This class keeps track of the number of nodes that are cached in each chunk
+ * while the persistent graph is enabled, as well as the order in which those
+ * chunks were last used. When the graph grows beyond its capacity, the least
+ * recently used chunks are evicted first.
+ *
+ * @author Space Walker
+ */
+class ChunkTracker {
+
+	/** Node counts per chunk, from least to most recently used. */
+	private final Long2IntLinkedOpenHashMap counts;
+
+	/** The total number of nodes in all tracked chunks. */
+	private int total;
+
+	ChunkTracker() {
+		this.counts = new Long2IntLinkedOpenHashMap();
+	}
+
+	static long key(long pos) {
+		return ChunkPos.asLong(BlockPos.getX(pos) >> 4, BlockPos.getZ(pos) >> 4);
+	}
+
+	int total() {
+		return total;
+	}
+
+	/**
+	 * Count a node that was added in the chunk at the given position. This also
+	 * marks that chunk as the most recently used.
+	 */
+	void add(long pos) {
+		long key = key(pos);
+		counts.putAndMoveToLast(key, counts.get(key) + 1);
+
+		total++;
+	}
+
+	/**
+	 * Stop counting a node that was removed from the chunk at the given position.
+	 */
+	void remove(long pos) {
+		long key = key(pos);
+		int count = counts.get(key);
+
+		if (count > 0) {
+			if (count == 1) {
+				counts.remove(key);
+			} else {
+				counts.put(key, count - 1);
+			}
+
+			total--;
+		}
+	}
+
+	/**
+	 * Mark the chunk at the given position as the most recently used.
+	 */
+	void touch(long pos) {
+		counts.getAndMoveToLast(key(pos));
+	}
+
+	/**
+	 * Stop tracking the given chunk.
+	 *
+	 * @return whether the chunk was tracked.
+	 */
+	boolean removeChunk(long key) {
+		if (counts.containsKey(key)) {
+			total -= counts.remove(key);
+			return true;
+		}
+
+		return false;
+	}
+
+	/**
+	 * Stop tracking the least recently used chunk and return its key.
+	 */
+	long evict() {
+		long key = counts.firstLongKey();
+		total -= counts.removeFirstInt();
+
+		return key;
+	}
+
+	void clear() {
+		counts.clear();
+		total = 0;
+	}
+}
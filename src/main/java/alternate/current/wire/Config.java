@@ -33,6 +33,22 @@ public interface Config {
 
 	void setUpdateOrder(UpdateOrder updateOrder);
 
+	boolean getPersistentGraph();
+
+	void setPersistentGraph(boolean persistentGraph);
+
+	int getPersistentGraphCapacity();
+
+	void setPersistentGraphCapacity(int capacity);
+
+	boolean getNeighborUpdateElision();
+
+	void setNeighborUpdateElision(boolean neighborUpdateElision);
+
+	boolean getExternalPowerCache();
+
+	void setExternalPowerCache(boolean externalPowerCache);
+
 	void load();
 
 	void save(boolean silent);
@@ -43,6 +59,10 @@ public interface Config {
 
 		private boolean enabled = true;
 		private UpdateOrder updateOrder = UpdateOrder.HORIZONTAL_FIRST_OUTWARD;
+		private boolean persistentGraph = false;
+		private int persistentGraphCapacity = 1 << 16;
+		private boolean neighborUpdateElision = false;
+		private boolean externalPowerCache = false;
 
 		private boolean modified;
 
@@ -73,6 +93,54 @@ public interface Config {
 			this.modified = true;
 		}
 
+		@Override
+		public boolean getPersistentGraph() {
+			return persistentGraph;
+		}
+
+		@Override
+		public void setPersistentGraph(boolean persistentGraph) {
+			this.persistentGraph = persistentGraph;
+			this.modified = true;
+		}
+
+		@Override
+		public int getPersistentGraphCapacity() {
+			return persistentGraphCapacity;
+		}
+
+		@Override
+		public void setPersistentGraphCapacity(int capacity) {
+			if (capacity <= 0) {
+				throw new IllegalArgumentException("capacity must be positive");
+			}
+
+			this.persistentGraphCapacity = capacity;
+			this.modified = true;
+		}
+
+		@Override
+		public boolean getNeighborUpdateElision() {
+			return neighborUpdateElision;
+		}
+
+		@Override
+		public void setNeighborUpdateElision(boolean neighborUpdateElision) {
+			this.neighborUpdateElision = neighborUpdateElision;
+			this.modified = true;
+		}
+
+		@Override
+		public boolean getExternalPowerCache() {
+			return externalPowerCache;
+		}
+
+		@Override
+		public void setExternalPowerCache(boolean externalPowerCache) {
+			this.externalPowerCache = externalPowerCache;
+			this.modified = true;
+		}
+
 		@Override
 		public void load() {
 			if (Files.exists(path)) {
@@ -95,6 +163,18 @@ public interface Config {
 									case "update-order":
 										setUpdateOrder(UpdateOrder.byId(value));
 										break;
+									case "persistent-graph":
+										setPersistentGraph(Boolean.parseBoolean(value));
+										break;
+									case "persistent-graph-capacity":
+										setPersistentGraphCapacity(Integer.parseInt(value));
+										break;
+									case "neighbor-update-elision":
+										setNeighborUpdateElision(Boolean.parseBoolean(value));
+										break;
+									case "external-power-cache":
+										setExternalPowerCache(Boolean.parseBoolean(value));
+										break;
 									default:
 										AlternateCurrentMod.LOGGER.info("skipping unknown option \'" + key + "\' in Alternate Current config");
 									}
@@ -132,6 +212,26 @@ public interface Config {
 					bw.write('=');
 					bw.write(updateOrder.id());
 					bw.newLine();
+
+					bw.write("persistent-graph");
+					bw.write('=');
+					bw.write(Boolean.toString(persistentGraph));
+					bw.newLine();
+
+					bw.write("persistent-graph-capacity");
+					bw.write('=');
+					bw.write(Integer.toString(persistentGraphCapacity));
+					bw.newLine();
+
+					bw.write("neighbor-update-elision");
+					bw.write('=');
+					bw.write(Boolean.toString(neighborUpdateElision));
+					bw.newLine();
+
+					bw.write("external-power-cache");
+					bw.write('=');
+					bw.write(Boolean.toString(externalPowerCache));
+					bw.newLine();
 				} catch (IOException e) {
 					AlternateCurrentMod.LOGGER.info("unable to save Alternate Current config!", e);
 				} finally {
@@ -169,6 +269,46 @@ public interface Config {
 			delegate.setUpdateOrder(updateOrder);
 		}
 
+		@Override
+		public boolean getPersistentGraph() {
+			return delegate.getPersistentGraph();
+		}
+
+		@Override
+		public void setPersistentGraph(boolean persistentGraph) {
+			delegate.setPersistentGraph(persistentGraph);
+		}
+
+		@Override
+		public int getPersistentGraphCapacity() {
+			return delegate.getPersistentGraphCapacity();
+		}
+
+		@Override
+		public void setPersistentGraphCapacity(int capacity) {
+			delegate.setPersistentGraphCapacity(capacity);
+		}
+
+		@Override
+		public boolean getNeighborUpdateElision() {
+			return delegate.getNeighborUpdateElision();
+		}
+
+		@Override
+		public void setNeighborUpdateElision(boolean neighborUpdateElision) {
+			delegate.setNeighborUpdateElision(neighborUpdateElision);
+		}
+
+		@Override
+		public boolean getExternalPowerCache() {
+			return delegate.getExternalPowerCache();
+		}
+
+		@Override
+		public void setExternalPowerCache(boolean externalPowerCache) {
+			delegate.setExternalPowerCache(externalPowerCache);
+		}
+
 		@Override
 		public void load() {
 		}
@@ -0,0 +1,154 @@
+package alternate.current.wire;
+
+import it.unimi.dsi.fastutil.longs.Long2LongMap;
+import it.unimi.dsi.fastutil.longs.Long2LongOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectIterator;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.ChunkPos;
+
+/**
+ * A cache of the external power of wires, keyed by their position, that is
+ * kept in between network updates. A wire's external power only depends on the
+ * blocks within a (Manhattan) distance of 2 of it, so an entry stays valid
+ * until one of those blocks changes, or until a signal source among them
+ * changes its output without changing its block state. The latter is only
+ * visible through the block updates it emits, so those must be reported to
+ * this cache as well.
+ *
+ * <p>
+ * Rather than removing entries one position at a time, the level is divided
+ * into cells of 4x4x4 blocks, and each cell records when it was last
+ * invalidated. Entries record when they were added, and are only valid if
+ * that was no earlier than the last invalidation of their cell. This means an
+ * invalidation touches a handful of cells instead of every position around
+ * it, at the cost of discarding some entries that were still valid.
+ *
+ * @author Space Walker
+ */
+class ExternalPowerCache {
+
+	/** The maximum number of entries or cells before the cache is cleared. */
+	private static final int CAPACITY = 1 << 16;
+	/** The number of bits of an entry that hold the power level. */
+	private static final int POWER_BITS = 4;
+	private static final int POWER_MASK = (1 << POWER_BITS) - 1;
+	/** The size of a cell, as a power of 2. */
+	private static final int CELL_SHIFT = 2;
+	private static final int CELL_SIZE = 1 << CELL_SHIFT;
+
+	/** Entries, each holding the power level and the stamp at which it was added. */
+	private final Long2LongOpenHashMap powers;
+	/** The stamp at which each cell was last invalidated. */
+	private final Long2LongOpenHashMap cells;
+
+	private long stamp;
+
+	ExternalPowerCache() {
+		this.powers = new Long2LongOpenHashMap();
+		this.powers.defaultReturnValue(-1L);
+		this.cells = new Long2LongOpenHashMap();
+		this.cells.defaultReturnValue(0L);
+	}
+
+	private static long cellKey(int x, int y, int z) {
+		return BlockPos.asLong(x >> CELL_SHIFT, y >> CELL_SHIFT, z >> CELL_SHIFT);
+	}
+
+	/**
+	 * Return the distance from the given coordinate to the nearest coordinate
+	 * in the cell at the given (cell) coordinate along the same axis.
+	 */
+	private static int distanceToCell(int coord, int cell) {
+		int min = cell << CELL_SHIFT;
+		int max = min + CELL_SIZE - 1;
+
+		return (coord < min) ? min - coord : (coord > max) ? coord - max : 0;
+	}
+
+	/**
+	 * Return the cached external power of the wire at the given position, or
+	 * {@code -1} if there is none.
+	 */
+	int get(long pos) {
+		long entry = powers.get(pos);
+
+		if (entry < 0L) {
+			return -1;
+		}
+
+		long cellStamp = cells.get(cellKey(BlockPos.getX(pos), BlockPos.getY(pos), BlockPos.getZ(pos)));
+
+		if ((entry >>> POWER_BITS) < cellStamp) {
+			return -1;
+		}
+
+		return (int)(entry & POWER_MASK);
+	}
+
+	void put(long pos, int power) {
+		if (powers.size() >= CAPACITY) {
+			clear();
+		}
+
+		powers.put(pos, (stamp << POWER_BITS) | power);
+	}
+
+	/**
+	 * Invalidate the entries for wires within the given (Manhattan) distance of
+	 * the given position, as well as any other entries in the same cells.
+	 */
+	void invalidate(long pos, int distance) {
+		if (powers.isEmpty()) {
+			return;
+		}
+		if (cells.size() >= CAPACITY) {
+			clear();
+			return;
+		}
+
+		int x = BlockPos.getX(pos);
+		int y = BlockPos.getY(pos);
+		int z = BlockPos.getZ(pos);
+
+		stamp++;
+
+		for (int cx = (x - distance) >> CELL_SHIFT; cx <= (x + distance) >> CELL_SHIFT; cx++) {
+			int rx = distance - distanceToCell(x, cx);
+
+			for (int cy = (y - rx) >> CELL_SHIFT; cy <= (y + rx) >> CELL_SHIFT; cy++) {
+				int ry = rx - distanceToCell(y, cy);
+
+				for (int cz = (z - ry) >> CELL_SHIFT; cz <= (z + ry) >> CELL_SHIFT; cz++) {
+					cells.put(BlockPos.asLong(cx, cy, cz), stamp);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Remove the entries for wires in or right next to the given chunk. Blocks
+	 * in unloaded chunks can be changed without this cache knowing about it.
+	 */
+	void invalidateChunk(ChunkPos chunk) {
+		if (powers.isEmpty()) {
+			return;
+		}
+
+		for (ObjectIterator<Long2LongMap.Entry> it = powers.long2LongEntrySet().fastIterator(); it.hasNext(); ) {
+			long pos = it.next().getLongKey();
+
+			int dx = (BlockPos.getX(pos) >> 4) - chunk.x;
+			int dz = (BlockPos.getZ(pos) >> 4) - chunk.z;
+
+			if (dx >= -1 && dx <= 1 && dz >= -1 && dz <= 1) {
+				it.remove();
+			}
+		}
+	}
+
+	void clear() {
+		powers.clear();
+		cells.clear();
+	}
+}
@@ -1,12 +1,15 @@
 package alternate.current.wire;
 
+import alternate.current.wire.WireHandler.Directions;
+
 import net.minecraft.core.BlockPos;
+import net.minecraft.core.BlockPos.MutableBlockPos;
+import net.minecraft.core.Direction;
 import net.minecraft.server.level.ServerLevel;
 import net.minecraft.world.level.block.Block;
 import net.minecraft.world.level.block.state.BlockState;
 import net.minecraft.world.level.chunk.ChunkAccess;
 import net.minecraft.world.level.chunk.LevelChunkSection;
-import net.minecraft.world.level.chunk.status.ChunkStatus;
 
 class LevelHelper {
 
@@ -14,27 +17,22 @@ class LevelHelper {
 	 * An optimized version of {@link net.minecraft.world.level.Level#setBlock
 	 * Level.setBlock}. Since this method is only used to update redstone wire block
 	 * states, lighting checks, height map updates, and block entity updates are
-	 * omitted.
+	 * omitted. The given mutable position is used to send shape updates to
+	 * neighboring blocks, so that it does not need to be allocated.
 	 */
-	static boolean setWireState(ServerLevel level, BlockPos pos, BlockState state, boolean updateNeighborShapes) {
-		int y = pos.getY();
+	static boolean setWireState(ServerLevel level, SectionCache sections, BlockPos pos, BlockState state, boolean updateNeighborShapes, boolean elideShapeUpdates, MutableBlockPos neighborPos) {
+		SectionCache.Entry entry = sections.get(pos);
 
-		if (y < level.getMinY() || y > level.getMaxY()) {
+		if (entry == null) {
 			return false;
 		}
 
-		int x = pos.getX();
-		int z = pos.getZ();
-		int index = level.getSectionIndex(y);
-
-		ChunkAccess chunk = level.getChunk(x >> 4, z >> 4, ChunkStatus.FULL, true);
-		LevelChunkSection section = chunk.getSections()[index];
-
-		if (section == null) {
-			return false; // we should never get here
-		}
+		ChunkAccess chunk = entry.chunk;
+		LevelChunkSection section = entry.section;
 
-		BlockState prevState = section.setBlockState(x & 15, y & 15, z & 15, state);
+		// Wires are only updated on the server thread, so there is no need to
+		// lock the section's block state container.
+		BlockState prevState = section.setBlockState(pos.getX() & 15, pos.getY() & 15, pos.getZ() & 15, state, false);
 
 		if (state == prevState) {
 			return false;
@@ -47,10 +45,32 @@ class LevelHelper {
 
 		if (updateNeighborShapes) {
 			prevState.updateIndirectNeighbourShapes(level, pos, Block.UPDATE_CLIENTS);
-			state.updateNeighbourShapes(level, pos, Block.UPDATE_CLIENTS);
+			if (elideShapeUpdates) {
+				updateNeighborShapes(level, sections, pos, state, neighborPos);
+			} else {
+				state.updateNeighbourShapes(level, pos, Block.UPDATE_CLIENTS);
+			}
 			state.updateIndirectNeighbourShapes(level, pos, Block.UPDATE_CLIENTS);
 		}
 
 		return true;
 	}
+
+	/**
+	 * Equivalent to {@link net.minecraft.world.level.block.state.BlockBehaviour.BlockStateBase#updateNeighbourShapes
+	 * BlockState.updateNeighbourShapes}, but shape updates to blocks that do not
+	 * override {@code updateShape} are skipped, as they would do nothing.
+	 */
+	private static void updateNeighborShapes(ServerLevel level, SectionCache sections, BlockPos pos, BlockState state, MutableBlockPos neighborPos) {
+		for (int iDir : WireHandler.SHAPE_UPDATE_ORDER) {
+			Direction dir = Directions.ALL[iDir];
+			neighborPos.setWithOffset(pos, dir);
+
+			BlockState neighborState = sections.getBlockState(neighborPos);
+
+			if ((BlockStateTable.flags(neighborState) & BlockStateTable.SHAPE_INERT) == 0) {
+				level.neighborShapeChanged(dir.getOpposite(), neighborPos, pos, state, Block.UPDATE_CLIENTS, 512);
+			}
+		}
+	}
 }
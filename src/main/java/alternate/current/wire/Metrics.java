@@ -0,0 +1,85 @@
+package alternate.current.wire;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class collects counters that describe how well the caches and pools of
+ * a {@link alternate.current.wire.WireHandler WireHandler} are doing. The
+ * counters are cheap enough to be kept up to date at all times.
+ *
+ * @author Space Walker
+ */
+public class Metrics {
+
+	long nodePoolHits;
+	long nodePoolMisses;
+	long wirePoolHits;
+	long wirePoolMisses;
+	long signalMemoHits;
+	long signalMemoMisses;
+	long directSignalMemoHits;
+	long directSignalMemoMisses;
+	long wireUpdatesSkipped;
+	long wireUpdatesPassed;
+	long neighborUpdatesElided;
+	long neighborUpdatesSent;
+	long shapeUpdatesElided;
+	long shapeUpdatesSent;
+	long externalPowerSkipped;
+	long externalPowerProbed;
+	long externalPowerCacheHits;
+	long externalPowerCacheMisses;
+
+	Metrics() {
+
+	}
+
+	public void reset() {
+		nodePoolHits = 0;
+		nodePoolMisses = 0;
+		wirePoolHits = 0;
+		wirePoolMisses = 0;
+		signalMemoHits = 0;
+		signalMemoMisses = 0;
+		directSignalMemoHits = 0;
+		directSignalMemoMisses = 0;
+		wireUpdatesSkipped = 0;
+		wireUpdatesPassed = 0;
+		neighborUpdatesElided = 0;
+		neighborUpdatesSent = 0;
+		shapeUpdatesElided = 0;
+		shapeUpdatesSent = 0;
+		externalPowerSkipped = 0;
+		externalPowerProbed = 0;
+		externalPowerCacheHits = 0;
+		externalPowerCacheMisses = 0;
+	}
+
+	/**
+	 * Return a human readable summary of these metrics, one line per counter
+	 * group.
+	 */
+	public List<String> summarize() {
+		List<String> lines = new ArrayList<>();
+
+		lines.add(ratio("node pool", nodePoolHits, nodePoolMisses));
+		lines.add(ratio("wire pool", wirePoolHits, wirePoolMisses));
+		lines.add(ratio("signal memo", signalMemoHits, signalMemoMisses));
+		lines.add(ratio("direct signal memo", directSignalMemoHits, directSignalMemoMisses));
+		lines.add(ratio("wire update pre-check", wireUpdatesSkipped, wireUpdatesPassed));
+		lines.add(ratio("neighbor update elision", neighborUpdatesElided, neighborUpdatesSent));
+		lines.add(ratio("shape update elision", shapeUpdatesElided, shapeUpdatesSent));
+		lines.add(ratio("signal source index", externalPowerSkipped, externalPowerProbed));
+		lines.add(ratio("external power cache", externalPowerCacheHits, externalPowerCacheMisses));
+
+		return lines;
+	}
+
+	private static String ratio(String name, long hits, long misses) {
+		long total = hits + misses;
+		long percentage = (total == 0) ? 0 : (100 * hits / total);
+
+		return String.format("%s: %d hits, %d misses (~%d%% hit rate)", name, hits, misses, percentage);
+	}
+}
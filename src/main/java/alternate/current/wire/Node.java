@@ -6,8 +6,8 @@ import alternate.current.wire.WireHandler.Directions;
 
 import net.minecraft.core.BlockPos;
 import net.minecraft.server.level.ServerLevel;
-import net.minecraft.world.level.block.Blocks;
 import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunkSection;
 
 /**
  * A Node represents a block in the world. It also holds a few other pieces of
@@ -18,15 +18,29 @@ import net.minecraft.world.level.block.state.BlockState;
 public class Node {
 
 	// flags that encode the Node type
-	private static final int CONDUCTOR = 0b01;
-	private static final int SOURCE    = 0b10;
+	private static final int CONDUCTOR = BlockStateTable.CONDUCTOR;
+	private static final int SOURCE    = BlockStateTable.SOURCE;
+	private static final int REACTS    = BlockStateTable.REACTS;
+	private static final int POSITIONAL = BlockStateTable.POSITIONAL;
 
 	final ServerLevel level;
 	final Node[] neighbors;
 
-	BlockPos pos;
+	/** The position of this node, packed into a long. */
+	long pos;
+	/** The position of this node, only created when it is needed. */
+	private BlockPos blockPos;
 	BlockState state;
 	boolean invalid;
+	/**
+	 * The generation of the graph in which this node was last validated. If it
+	 * does not match the current generation, this node is invalid.
+	 */
+	int generation;
+	/** The chunk section this node was last validated against. */
+	LevelChunkSection section;
+	/** The modification count of that section at the time. */
+	int sectionModCount;
 
 	private int flags;
 
@@ -39,6 +53,16 @@ public class Node {
 	/** The wire that queued this node for an update. */
 	WireNode neighborWire;
 
+	/** The signal memo of this node is only valid while this stamp is current. */
+	int signalStamp;
+	/**
+	 * Memoized signals this node emits, 5 bits per direction. Each value is
+	 * stored plus one, so that zero means the signal is not yet known.
+	 */
+	int signals;
+	/** The memoized direct signal this node receives, or -1 if not yet known. */
+	int directSignalIn;
+
 	Node(ServerLevel level) {
 		this.level = level;
 		this.neighbors = new Node[Directions.ALL.length];
@@ -55,16 +79,38 @@ public class Node {
 
 		Node node = (Node)obj;
 
-		return level == node.level && pos.equals(node.pos);
+		return level == node.level && pos == node.pos;
 	}
 
 	@Override
 	public int hashCode() {
-		return pos.hashCode();
+		return Long.hashCode(pos);
 	}
 
-	Node set(BlockPos pos, BlockState state, boolean clearNeighbors) {
-		if (state.is(Blocks.REDSTONE_WIRE)) {
+	/**
+	 * Return the position of this node as a {@code BlockPos}. Node discovery
+	 * only uses the packed position, so this is created lazily, when the node
+	 * is first passed into vanilla code that may hold on to the position.
+	 */
+	BlockPos blockPos() {
+		if (blockPos == null) {
+			blockPos = BlockPos.of(pos);
+		}
+
+		return blockPos;
+	}
+
+	void setPos(long pos) {
+		if (this.pos != pos) {
+			this.pos = pos;
+			this.blockPos = null;
+		}
+	}
+
+	Node set(long pos, BlockState state, boolean clearNeighbors) {
+		int stateFlags = BlockStateTable.flags(state);
+
+		if ((stateFlags & BlockStateTable.WIRE) != 0) {
 			throw new IllegalStateException("Cannot update a regular Node to a WireNode!");
 		}
 
@@ -72,18 +118,18 @@ public class Node {
 			Arrays.fill(neighbors, null);
 		}
 
-		this.pos = pos.immutable();
+		this.setPos(pos);
 		this.state = state;
 		this.invalid = false;
 
-		this.flags = 0;
+		this.flags = stateFlags & (CONDUCTOR | SOURCE | REACTS | POSITIONAL);
+
+		this.signals = 0;
+		this.directSignalIn = -1;
 
-		if (this.state.isRedstoneConductor(this.level, this.pos)) {
+		if ((stateFlags & BlockStateTable.POSITIONAL) != 0 && this.state.isRedstoneConductor(this.level, this.blockPos())) {
 			this.flags |= CONDUCTOR;
 		}
-		if (this.state.isSignalSource()) {
-			this.flags |= SOURCE;
-		}
 
 		return this;
 	}
@@ -107,6 +153,21 @@ public class Node {
 		return (flags & SOURCE) != 0;
 	}
 
+	/**
+	 * Check whether the properties of this node depend on its position in the
+	 * level, rather than only its block state.
+	 */
+	public boolean isPositional() {
+		return (flags & POSITIONAL) != 0;
+	}
+
+	/**
+	 * Check whether block updates to this node can have any effect.
+	 */
+	public boolean reactsToNeighborUpdates() {
+		return (flags & REACTS) != 0;
+	}
+
 	public WireNode asWire() {
 		throw new UnsupportedOperationException("Not a WireNode!");
 	}
@@ -0,0 +1,256 @@
+package alternate.current.wire;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.function.Consumer;
+import java.util.function.LongPredicate;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap.Entry;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMaps;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.world.level.ChunkPos;
+
+/**
+ * A spatial map of nodes. Nodes are stored in arrays that each cover a 16x16x16
+ * section of the level, and only those arrays are looked up by section
+ * position. Since nodes are almost always looked up close to the previous
+ * lookup, the most recently used sections are cached, so that most lookups are
+ * reduced to some index arithmetic.
+ *
+ * <p>
+ * Every section is a dense array, even if it holds only a few nodes. Sections
+ * are pooled, so in between network updates they are re-used rather than
+ * re-allocated, and a sparse layout would trade the plain index lookup for a
+ * probe on every access. The pool is not capped; it grows to the largest
+ * number of sections that were in use at once, so that an update that spans
+ * as many sections as a previous one does not allocate any.
+ *
+ * @author Space Walker
+ */
+class NodeMap {
+
+	/** The number of recently used sections that are cached. */
+	private static final int CACHE_SIZE = 4;
+	/** The initial capacity of the pool of unused sections. */
+	private static final int INITIAL_POOL_SIZE = 16;
+
+	private final Long2ObjectOpenHashMap<Section> sections;
+
+	private final Section[] cache;
+	private int cacheIndex;
+
+	private Section[] pool;
+	private int poolSize;
+
+	NodeMap() {
+		this.sections = new Long2ObjectOpenHashMap<>();
+
+		this.cache = new Section[CACHE_SIZE];
+		this.pool = new Section[INITIAL_POOL_SIZE];
+	}
+
+	private static long sectionKey(int x, int y, int z) {
+		return SectionPos.asLong(x >> 4, y >> 4, z >> 4);
+	}
+
+	private static int index(int x, int y, int z) {
+		return ((y & 15) << 8) | ((z & 15) << 4) | (x & 15);
+	}
+
+	Node get(BlockPos pos) {
+		return get(pos.getX(), pos.getY(), pos.getZ());
+	}
+
+	Node get(long pos) {
+		return get(BlockPos.getX(pos), BlockPos.getY(pos), BlockPos.getZ(pos));
+	}
+
+	Node get(int x, int y, int z) {
+		Section section = getSection(sectionKey(x, y, z), false);
+		return (section == null) ? null : section.nodes[index(x, y, z)];
+	}
+
+	/**
+	 * Put the given node in this map at the given position, and return the node
+	 * that was previously at that position, if any.
+	 */
+	Node put(long pos, Node node) {
+		int x = BlockPos.getX(pos);
+		int y = BlockPos.getY(pos);
+		int z = BlockPos.getZ(pos);
+
+		Section section = getSection(sectionKey(x, y, z), true);
+		int index = index(x, y, z);
+
+		Node prevNode = section.nodes[index];
+		section.nodes[index] = node;
+
+		if (prevNode == null) {
+			section.occupy(index);
+		}
+
+		return prevNode;
+	}
+
+	/**
+	 * Remove and return the node at the given position, if any.
+	 */
+	Node remove(long pos) {
+		int x = BlockPos.getX(pos);
+		int y = BlockPos.getY(pos);
+		int z = BlockPos.getZ(pos);
+
+		Section section = getSection(sectionKey(x, y, z), false);
+
+		if (section == null) {
+			return null;
+		}
+
+		int index = index(x, y, z);
+		Node node = section.nodes[index];
+
+		if (node != null) {
+			section.nodes[index] = null;
+			section.vacate(index);
+
+			if (section.size == 0) {
+				sections.remove(section.key);
+				uncache(section);
+				release(section);
+			}
+		}
+
+		return node;
+	}
+
+	/**
+	 * Remove all nodes in the chunks that match the given predicate, and perform
+	 * the given action for each of them.
+	 */
+	void removeChunks(LongPredicate chunkPredicate, Consumer<Node> action) {
+		Iterator<Entry<Section>> it = Long2ObjectMaps.fastIterator(sections);
+
+		while (it.hasNext()) {
+			Section section = it.next().getValue();
+			long chunk = ChunkPos.asLong(SectionPos.x(section.key), SectionPos.z(section.key));
+
+			if (chunkPredicate.test(chunk)) {
+				section.forEach(action);
+
+				it.remove();
+				uncache(section);
+				release(section);
+			}
+		}
+	}
+
+	void clear() {
+		if (sections.isEmpty()) {
+			return;
+		}
+
+		for (Section section : sections.values()) {
+			release(section);
+		}
+
+		sections.clear();
+
+		for (int i = 0; i < CACHE_SIZE; i++) {
+			cache[i] = null;
+		}
+	}
+
+	private Section getSection(long key, boolean create) {
+		for (int i = 0; i < CACHE_SIZE; i++) {
+			Section section = cache[i];
+
+			if (section != null && section.key == key) {
+				return section;
+			}
+		}
+
+		Section section = sections.get(key);
+
+		if (section == null) {
+			if (!create) {
+				return null;
+			}
+
+			section = (poolSize > 0) ? pool[--poolSize] : new Section();
+			section.key = key;
+
+			sections.put(key, section);
+		}
+
+		cache[cacheIndex] = section;
+		cacheIndex = (cacheIndex + 1) % CACHE_SIZE;
+
+		return section;
+	}
+
+	private void uncache(Section section) {
+		for (int i = 0; i < CACHE_SIZE; i++) {
+			if (cache[i] == section) {
+				cache[i] = null;
+			}
+		}
+	}
+
+	private void release(Section section) {
+		section.clear();
+
+		if (poolSize == pool.length) {
+			pool = Arrays.copyOf(pool, pool.length << 1);
+		}
+
+		pool[poolSize++] = section;
+	}
+
+	private static class Section {
+
+		final Node[] nodes;
+		/** A bit set of the indices that are occupied by a node. */
+		final long[] occupied;
+
+		long key;
+		int size;
+
+		Section() {
+			this.nodes = new Node[16 * 16 * 16];
+			this.occupied = new long[this.nodes.length >> 6];
+		}
+
+		void occupy(int index) {
+			occupied[index >> 6] |= (1L << index);
+			size++;
+		}
+
+		void vacate(int index) {
+			occupied[index >> 6] &= ~(1L << index);
+			size--;
+		}
+
+		void forEach(Consumer<Node> action) {
+			for (int i = 0; i < occupied.length; i++) {
+				for (long bits = occupied[i]; bits != 0; bits &= (bits - 1)) {
+					action.accept(nodes[(i << 6) | Long.numberOfTrailingZeros(bits)]);
+				}
+			}
+		}
+
+		void clear() {
+			for (int i = 0; i < occupied.length; i++) {
+				for (long bits = occupied[i]; bits != 0; bits &= (bits - 1)) {
+					nodes[(i << 6) | Long.numberOfTrailingZeros(bits)] = null;
+				}
+
+				occupied[i] = 0L;
+			}
+
+			size = 0;
+		}
+	}
+}
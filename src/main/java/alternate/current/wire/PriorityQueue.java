@@ -12,6 +12,8 @@ public class PriorityQueue extends AbstractQueue<Node> {
 
 	/** The last node for each priority value. */
 	private final Node[] tails;
+	/** A bit mask of the priority values that have a tail. */
+	private int occupied;
 
 	private Node head;
 	private Node tail;
@@ -61,7 +63,7 @@ public class PriorityQueue extends AbstractQueue<Node> {
 				// If the head is also a tail, its entry in the array
 				// can be cleared; there is no previous node with the
 				// same priority to take its place.
-				tails[node.priority + OFFSET] = null;
+				vacate(node.priority + OFFSET);
 			}
 
 			node.next_node = null;
@@ -90,6 +92,7 @@ public class PriorityQueue extends AbstractQueue<Node> {
 		}
 
 		Arrays.fill(tails, null);
+		occupied = 0;
 
 		head = null;
 		tail = null;
@@ -124,7 +127,7 @@ public class PriorityQueue extends AbstractQueue<Node> {
 			// assign a new tail for this node's priority
 			if (node == head || node.priority != prev.priority) {
 				// there is no other node with the same priority; clear
-				tails[node.priority + OFFSET] = null;
+				vacate(node.priority + OFFSET);
 			} else {
 				// the previous node in the queue becomes the tail
 				tails[node.priority + OFFSET] = prev;
@@ -167,6 +170,7 @@ public class PriorityQueue extends AbstractQueue<Node> {
 		}
 
 		tails[priority + OFFSET] = node;
+		occupied |= (1 << (priority + OFFSET));
 
 		size++;
 	}
@@ -195,17 +199,15 @@ public class PriorityQueue extends AbstractQueue<Node> {
 		next.prev_node = node;
 	}
 
-	private Node findPrev(Node node) {
-		Node prev = null;
-
-		for (int i = node.priority + OFFSET; i < tails.length; i++) {
-			prev = tails[i];
-
-			if (prev != null) {
-				break;
-			}
-		}
+	private void vacate(int index) {
+		tails[index] = null;
+		occupied &= ~(1 << index);
+	}
 
-		return prev;
+	private Node findPrev(Node node) {
+		// the previous node is the tail of the lowest priority value
+		// that is larger than or equal to that of the given node
+		int bits = occupied & (-1 << (node.priority + OFFSET));
+		return (bits == 0) ? null : tails[Integer.numberOfTrailingZeros(bits)];
 	}
 }
@@ -0,0 +1,258 @@
+package alternate.current.wire;
+
+import java.util.Arrays;
+
+import alternate.current.interfaces.mixin.ILevelChunkSection;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.ChunkAccess;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+import net.minecraft.world.level.chunk.status.ChunkStatus;
+
+/**
+ * A cache of the chunk sections that are read from and written to during a
+ * network update. Looking up a chunk through the level is relatively slow, and
+ * the wires in a network tend to be packed into only a handful of sections.
+ *
+ * <p>
+ * Chunks are not unloaded while a network update is ongoing, but they may be in
+ * between updates, so this cache must be cleared before each update. The
+ * entries themselves are re-used after the cache is cleared.
+ *
+ * @author Space Walker
+ */
+class SectionCache {
+
+	private final ServerLevel level;
+	private final Long2ObjectOpenHashMap<Entry> entries;
+
+	/** The most recently used entry. */
+	private Entry last;
+
+	private Entry[] entryCache;
+	private int entryCount;
+
+	SectionCache(ServerLevel level) {
+		this.level = level;
+		this.entries = new Long2ObjectOpenHashMap<>();
+
+		this.entryCache = new Entry[16];
+	}
+
+	/**
+	 * Return the cache entry for the section at the given position, or
+	 * {@code null} if the position is outside the build height.
+	 */
+	Entry get(BlockPos pos) {
+		return get(pos.getX(), pos.getY(), pos.getZ());
+	}
+
+	Entry get(long pos) {
+		return get(BlockPos.getX(pos), BlockPos.getY(pos), BlockPos.getZ(pos));
+	}
+
+	Entry get(int x, int y, int z) {
+		if (y < level.getMinY() || y > level.getMaxY()) {
+			return null;
+		}
+
+		long key = SectionPos.asLong(x >> 4, y >> 4, z >> 4);
+
+		if (last != null && last.key == key) {
+			return last;
+		}
+
+		Entry entry = entries.get(key);
+
+		if (entry == null) {
+			ChunkAccess chunk = level.getChunk(x >> 4, z >> 4, ChunkStatus.FULL, true);
+			LevelChunkSection section = chunk.getSections()[level.getSectionIndex(y)];
+
+			if (section == null) {
+				return null; // we should never get here
+			}
+
+			entry = getNextEntry().set(key, chunk, section);
+			entries.put(key, entry);
+		}
+
+		return last = entry;
+	}
+
+	/**
+	 * Grab the first unused entry from the cache. If all of the cache is already
+	 * in use, increase it in size first.
+	 */
+	private Entry getNextEntry() {
+		if (entryCount == entryCache.length) {
+			entryCache = Arrays.copyOf(entryCache, entryCache.length << 1);
+		}
+
+		Entry entry = entryCache[entryCount];
+
+		if (entry == null) {
+			entry = entryCache[entryCount] = new Entry();
+		}
+
+		entryCount++;
+
+		return entry;
+	}
+
+	BlockState getBlockState(BlockPos pos) {
+		Entry entry = get(pos);
+
+		if (entry == null) {
+			return level.getBlockState(pos);
+		}
+
+		return entry.getBlockState(pos);
+	}
+
+	BlockState getBlockState(long pos) {
+		Entry entry = get(pos);
+
+		if (entry == null) {
+			return level.getBlockState(BlockPos.of(pos));
+		}
+
+		return entry.getBlockState(pos);
+	}
+
+	/**
+	 * Check whether there are any signal sources other than redstone wire in the
+	 * sections that hold the positions within a (Manhattan) distance of 2 of the
+	 * given position. Those are the only blocks that can provide power to a wire
+	 * at that position.
+	 */
+	boolean hasSignalSourcesNear(long pos) {
+		int x = BlockPos.getX(pos);
+		int y = BlockPos.getY(pos);
+		int z = BlockPos.getZ(pos);
+
+		for (int sx = -1; sx <= 1; sx++) {
+			int distX = distanceToSection(x, sx);
+
+			if (distX > 2) {
+				continue;
+			}
+
+			for (int sy = -1; sy <= 1; sy++) {
+				int distY = distanceToSection(y, sy);
+
+				if (distX + distY > 2) {
+					continue;
+				}
+
+				for (int sz = -1; sz <= 1; sz++) {
+					int distZ = distanceToSection(z, sz);
+
+					if (distX + distY + distZ > 2) {
+						continue;
+					}
+
+					Entry entry = get(x + sx * distX, y + sy * distY, z + sz * distZ);
+
+					if (entry != null && entry.signalSources() > 0) {
+						return true;
+					}
+				}
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * Return the distance from the given coordinate to the nearest coordinate
+	 * in the adjacent section in the given direction along the same axis.
+	 */
+	private static int distanceToSection(int coord, int dir) {
+		return (dir == 0) ? 0 : (dir < 0) ? (coord & 15) + 1 : 16 - (coord & 15);
+	}
+
+	void clear() {
+		if (!entries.isEmpty()) {
+			entries.clear();
+		}
+
+		for (int i = 0; i < entryCount; i++) {
+			entryCache[i].set(0L, null, null);
+		}
+
+		entryCount = 0;
+		last = null;
+	}
+
+	static class Entry {
+
+		long key;
+		ChunkAccess chunk;
+		LevelChunkSection section;
+
+		Entry set(long key, ChunkAccess chunk, LevelChunkSection section) {
+			this.key = key;
+			this.chunk = chunk;
+			this.section = section;
+
+			return this;
+		}
+
+		BlockState getBlockState(BlockPos pos) {
+			return section.getBlockState(pos.getX() & 15, pos.getY() & 15, pos.getZ() & 15);
+		}
+
+		BlockState getBlockState(long pos) {
+			return section.getBlockState(BlockPos.getX(pos) & 15, BlockPos.getY(pos) & 15, BlockPos.getZ(pos) & 15);
+		}
+
+		/**
+		 * Return the number of signal sources other than redstone wire in this
+		 * section. These are counted the first time this is called for a
+		 * section, after which the count is kept up to date as blocks change.
+		 */
+		int signalSources() {
+			ILevelChunkSection s = (ILevelChunkSection)section;
+			int count = s.alternate_current$getSignalSources();
+
+			if (count < 0) {
+				s.alternate_current$setSignalSources(count = countSignalSources());
+			}
+
+			return count;
+		}
+
+		private int countSignalSources() {
+			if (section.hasOnlyAir() || !section.maybeHas(BlockStateTable::isSignalSource)) {
+				return 0;
+			}
+
+			int count = 0;
+
+			for (int y = 0; y < 16; y++) {
+				for (int z = 0; z < 16; z++) {
+					for (int x = 0; x < 16; x++) {
+						if (BlockStateTable.isSignalSource(section.getBlockState(x, y, z))) {
+							count++;
+						}
+					}
+				}
+			}
+
+			return count;
+		}
+
+		/**
+		 * Return the number of block state changes made to this section. Note
+		 * that this is only comparable between reads of the same section.
+		 */
+		int modCount() {
+			return ((ILevelChunkSection)section).alternate_current$getModCount();
+		}
+	}
+}
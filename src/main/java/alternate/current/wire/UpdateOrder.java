@@ -1,362 +1,206 @@
 package alternate.current.wire;
 
 import java.util.Locale;
-import java.util.function.Consumer;
 
 import alternate.current.wire.WireHandler.Directions;
 import alternate.current.wire.WireHandler.NodeProvider;
 
 public enum UpdateOrder {
 
+	/**
+	 * This iteration order is designed to be an extension of the Vanilla shape
+	 * update order, and is determined as follows:
+	 * <br>
+	 * 1. Each neighbor is identified by the step(s) you must take, starting at the
+	 * source, to reach it. Each step is 1 block, thus the position of a neighbor is
+	 * encoded by the direction(s) of the step(s), e.g. (right), (down), (up, left),
+	 * etc.
+	 * <br>
+	 * 2. Neighbors are iterated over in pairs that lie on opposite sides of the
+	 * source.
+	 * <br>
+	 * 3. Neighbors are iterated over in order of their distance from the source,
+	 * moving outward. This means they are iterated over in 3 groups: direct
+	 * neighbors first, then diagonal neighbors, and last are the far neighbors that
+	 * are 2 blocks directly out.
+	 * <br>
+	 * 4. The order within each group is determined using the following basic order:
+	 * { front, back, right, left, down, up }. This order was chosen because it
+	 * converts to the following order of absolute directions when west is said to
+	 * be 'forward': { west, east, north, south, down, up } - this is the order of
+	 * shape updates.
+	 */
 	HORIZONTAL_FIRST_OUTWARD(
-		new int[][] {
-			new int[] { Directions.WEST , Directions.EAST , Directions.NORTH, Directions.SOUTH, Directions.DOWN, Directions.UP },
-			new int[] { Directions.NORTH, Directions.SOUTH, Directions.EAST , Directions.WEST , Directions.DOWN, Directions.UP },
-			new int[] { Directions.EAST , Directions.WEST , Directions.SOUTH, Directions.NORTH, Directions.DOWN, Directions.UP },
-			new int[] { Directions.SOUTH, Directions.NORTH, Directions.WEST , Directions.EAST , Directions.DOWN, Directions.UP }
-			
-		},
-		new int[][] {
-			new int[] { Directions.WEST , Directions.EAST , Directions.NORTH, Directions.SOUTH },
-			new int[] { Directions.NORTH, Directions.SOUTH, Directions.EAST , Directions.WEST  },
-			new int[] { Directions.EAST , Directions.WEST , Directions.SOUTH, Directions.NORTH },
-			new int[] { Directions.SOUTH, Directions.NORTH, Directions.WEST , Directions.EAST  }
-		}
-	) {
-
-		@Override
-		public void forEachNeighbor(NodeProvider nodes, Node source, int forward, Consumer<Node> action) {
-			/*
-			 * This iteration order is designed to be an extension of the Vanilla shape
-			 * update order, and is determined as follows:
-			 * <br>
-			 * 1. Each neighbor is identified by the step(s) you must take, starting at the
-			 * source, to reach it. Each step is 1 block, thus the position of a neighbor is
-			 * encoded by the direction(s) of the step(s), e.g. (right), (down), (up, left),
-			 * etc.
-			 * <br>
-			 * 2. Neighbors are iterated over in pairs that lie on opposite sides of the
-			 * source.
-			 * <br>
-			 * 3. Neighbors are iterated over in order of their distance from the source,
-			 * moving outward. This means they are iterated over in 3 groups: direct
-			 * neighbors first, then diagonal neighbors, and last are the far neighbors that
-			 * are 2 blocks directly out.
-			 * <br>
-			 * 4. The order within each group is determined using the following basic order:
-			 * { front, back, right, left, down, up }. This order was chosen because it
-			 * converts to the following order of absolute directions when west is said to
-			 * be 'forward': { west, east, north, south, down, up } - this is the order of
-			 * shape updates.
-			 */
-
-			int rightward = (forward + 1) & 0b11;
-			int backward  = (forward + 2) & 0b11;
-			int leftward  = (forward + 3) & 0b11;
-			int downward  = Directions.DOWN;
-			int upward    = Directions.UP;
-
-			Node front = nodes.getNeighbor(source, forward);
-			Node right = nodes.getNeighbor(source, rightward);
-			Node back  = nodes.getNeighbor(source, backward);
-			Node left  = nodes.getNeighbor(source, leftward);
-			Node below = nodes.getNeighbor(source, downward);
-			Node above = nodes.getNeighbor(source, upward);
-
-			// direct neighbors (6)
-			action.accept(front);
-			action.accept(back);
-			action.accept(right);
-			action.accept(left);
-			action.accept(below);
-			action.accept(above);
-
-			// diagonal neighbors (12)
-			action.accept(nodes.getNeighbor(front, rightward));
-			action.accept(nodes.getNeighbor(back, leftward));
-			action.accept(nodes.getNeighbor(front, leftward));
-			action.accept(nodes.getNeighbor(back, rightward));
-			action.accept(nodes.getNeighbor(front, downward));
-			action.accept(nodes.getNeighbor(back, upward));
-			action.accept(nodes.getNeighbor(front, upward));
-			action.accept(nodes.getNeighbor(back, downward));
-			action.accept(nodes.getNeighbor(right, downward));
-			action.accept(nodes.getNeighbor(left, upward));
-			action.accept(nodes.getNeighbor(right, upward));
-			action.accept(nodes.getNeighbor(left, downward));
-
-			// far neighbors (6)
-			action.accept(nodes.getNeighbor(front, forward));
-			action.accept(nodes.getNeighbor(back, backward));
-			action.accept(nodes.getNeighbor(right, rightward));
-			action.accept(nodes.getNeighbor(left, leftward));
-			action.accept(nodes.getNeighbor(below, downward));
-			action.accept(nodes.getNeighbor(above, upward));
-		}
-	},
+		// direct neighbors (6)
+		"F B R L D U",
+		// diagonal neighbors (12)
+		"FR BL FL BR FD BU FU BD RD LU RU LD",
+		// far neighbors (6)
+		"FF BB RR LL DD UU"
+	),
+	/**
+	 * This iteration order is designed to be an inversion of the above update
+	 * order, and is determined as follows:
+	 * <br>
+	 * 1. Each neighbor is identified by the step(s) you must take, starting at the
+	 * source, to reach it. Each step is 1 block, thus the position of a neighbor is
+	 * encoded by the direction(s) of the step(s), e.g. (right), (down), (up, left),
+	 * etc.
+	 * <br>
+	 * 2. Neighbors are iterated over in pairs that lie on opposite sides of the
+	 * source.
+	 * <br>
+	 * 3. Neighbors are iterated over in order of their distance from the source,
+	 * moving inward. This means they are iterated over in 3 groups: neighbors that
+	 * are 2 blocks directly out first, then diagonal neighbors, and last are direct
+	 * neighbors.
+	 * <br>
+	 * 4. The order within each group is determined using the following basic order:
+	 * { front, back, right, left, down, up }. This order was chosen because it
+	 * converts to the following order of absolute directions when west is said to
+	 * be 'forward': { west, east, north, south, down, up } - this is the order of
+	 * shape updates.
+	 */
 	HORIZONTAL_FIRST_INWARD(
-		new int[][] {
-			new int[] { Directions.WEST , Directions.EAST , Directions.NORTH, Directions.SOUTH, Directions.DOWN, Directions.UP },
-			new int[] { Directions.NORTH, Directions.SOUTH, Directions.EAST , Directions.WEST , Directions.DOWN, Directions.UP },
-			new int[] { Directions.EAST , Directions.WEST , Directions.SOUTH, Directions.NORTH, Directions.DOWN, Directions.UP },
-			new int[] { Directions.SOUTH, Directions.NORTH, Directions.WEST , Directions.EAST , Directions.DOWN, Directions.UP }
-		},
-		new int[][] {
-			new int[] { Directions.WEST , Directions.EAST , Directions.NORTH, Directions.SOUTH },
-			new int[] { Directions.NORTH, Directions.SOUTH, Directions.EAST , Directions.WEST  },
-			new int[] { Directions.EAST , Directions.WEST , Directions.SOUTH, Directions.NORTH },
-			new int[] { Directions.SOUTH, Directions.NORTH, Directions.WEST , Directions.EAST  }
-		}
-	) {
-
-		@Override
-		public void forEachNeighbor(NodeProvider nodes, Node source, int forward, Consumer<Node> action) {
-			/*
-			 * This iteration order is designed to be an inversion of the above update
-			 * order, and is determined as follows:
-			 * <br>
-			 * 1. Each neighbor is identified by the step(s) you must take, starting at the
-			 * source, to reach it. Each step is 1 block, thus the position of a neighbor is
-			 * encoded by the direction(s) of the step(s), e.g. (right), (down), (up, left),
-			 * etc.
-			 * <br>
-			 * 2. Neighbors are iterated over in pairs that lie on opposite sides of the
-			 * source.
-			 * <br>
-			 * 3. Neighbors are iterated over in order of their distance from the source,
-			 * moving inward. This means they are iterated over in 3 groups: neighbors that
-			 * are 2 blocks directly out first, then diagonal neighbors, and last are direct
-			 * neighbors.
-			 * <br>
-			 * 4. The order within each group is determined using the following basic order:
-			 * { front, back, right, left, down, up }. This order was chosen because it
-			 * converts to the following order of absolute directions when west is said to
-			 * be 'forward': { west, east, north, south, down, up } - this is the order of
-			 * shape updates.
-			 */
-
-			int rightward = (forward + 1) & 0b11;
-			int backward  = (forward + 2) & 0b11;
-			int leftward  = (forward + 3) & 0b11;
-			int downward  = Directions.DOWN;
-			int upward    = Directions.UP;
-
-			Node front = nodes.getNeighbor(source, forward);
-			Node right = nodes.getNeighbor(source, rightward);
-			Node back  = nodes.getNeighbor(source, backward);
-			Node left  = nodes.getNeighbor(source, leftward);
-			Node below = nodes.getNeighbor(source, downward);
-			Node above = nodes.getNeighbor(source, upward);
-
-			// far neighbors (6)
-			action.accept(nodes.getNeighbor(front, forward));
-			action.accept(nodes.getNeighbor(back, backward));
-			action.accept(nodes.getNeighbor(right, rightward));
-			action.accept(nodes.getNeighbor(left, leftward));
-			action.accept(nodes.getNeighbor(below, downward));
-			action.accept(nodes.getNeighbor(above, upward));
-
-			// diagonal neighbors (12)
-			action.accept(nodes.getNeighbor(front, rightward));
-			action.accept(nodes.getNeighbor(back, leftward));
-			action.accept(nodes.getNeighbor(front, leftward));
-			action.accept(nodes.getNeighbor(back, rightward));
-			action.accept(nodes.getNeighbor(front, downward));
-			action.accept(nodes.getNeighbor(back, upward));
-			action.accept(nodes.getNeighbor(front, upward));
-			action.accept(nodes.getNeighbor(back, downward));
-			action.accept(nodes.getNeighbor(right, downward));
-			action.accept(nodes.getNeighbor(left, upward));
-			action.accept(nodes.getNeighbor(right, upward));
-			action.accept(nodes.getNeighbor(left, downward));
-
-			
-			// direct neighbors (6)
-			action.accept(front);
-			action.accept(back);
-			action.accept(right);
-			action.accept(left);
-			action.accept(below);
-			action.accept(above);
-		}
-	},
+		// far neighbors (6)
+		"FF BB RR LL DD UU",
+		// diagonal neighbors (12)
+		"FR BL FL BR FD BU FU BD RD LU RU LD",
+		// direct neighbors (6)
+		"F B R L D U"
+	),
+	/**
+	 * This iteration order is designed to be the opposite of the Vanilla shape
+	 * update order, and is determined as follows:
+	 * <br>
+	 * 1. Each neighbor is identified by the step(s) you must take, starting at the
+	 * source, to reach it. Each step is 1 block, thus the position of a neighbor is
+	 * encoded by the direction(s) of the step(s), e.g. (right), (down), (up, left),
+	 * etc.
+	 * <br>
+	 * 2. Neighbors are iterated over in pairs that lie on opposite sides of the
+	 * source.
+	 * <br>
+	 * 3. Neighbors are iterated over in order of their distance from the source,
+	 * moving outward. This means they are iterated over in 3 groups: direct
+	 * neighbors first, then diagonal neighbors, and last are the far neighbors that
+	 * are 2 blocks directly out.
+	 * <br>
+	 * 4. The order within each group is determined using the following basic order:
+	 * { down, up, front, back, right, left }. This order was chosen because it
+	 * converts to the following order of absolute directions when west is said to
+	 * be 'forward': { down, up west, east, north, south } - this is the order of
+	 * shape updates, with the vertical directions moved to the front.
+	 */
 	VERTICAL_FIRST_OUTWARD(
-		new int[][] {
-			new int[] { Directions.DOWN, Directions.UP, Directions.WEST , Directions.EAST , Directions.NORTH, Directions.SOUTH },
-			new int[] { Directions.DOWN, Directions.UP, Directions.NORTH, Directions.SOUTH, Directions.EAST , Directions.WEST  },
-			new int[] { Directions.DOWN, Directions.UP, Directions.EAST , Directions.WEST , Directions.SOUTH, Directions.NORTH },
-			new int[] { Directions.DOWN, Directions.UP, Directions.SOUTH, Directions.NORTH, Directions.WEST , Directions.EAST  }
-		},
-		new int[][] {
-			new int[] { Directions.WEST , Directions.EAST , Directions.NORTH, Directions.SOUTH },
-			new int[] { Directions.NORTH, Directions.SOUTH, Directions.EAST , Directions.WEST  },
-			new int[] { Directions.EAST , Directions.WEST , Directions.SOUTH, Directions.NORTH },
-			new int[] { Directions.SOUTH, Directions.NORTH, Directions.WEST , Directions.EAST  }
-		}
-	) {
-
-		@Override
-		public void forEachNeighbor(NodeProvider nodes, Node source, int forward, Consumer<Node> action) {
-			/*
-			 * This iteration order is designed to be the opposite of the Vanilla shape
-			 * update order, and is determined as follows:
-			 * <br>
-			 * 1. Each neighbor is identified by the step(s) you must take, starting at the
-			 * source, to reach it. Each step is 1 block, thus the position of a neighbor is
-			 * encoded by the direction(s) of the step(s), e.g. (right), (down), (up, left),
-			 * etc.
-			 * <br>
-			 * 2. Neighbors are iterated over in pairs that lie on opposite sides of the
-			 * source.
-			 * <br>
-			 * 3. Neighbors are iterated over in order of their distance from the source,
-			 * moving outward. This means they are iterated over in 3 groups: direct
-			 * neighbors first, then diagonal neighbors, and last are the far neighbors that
-			 * are 2 blocks directly out.
-			 * <br>
-			 * 4. The order within each group is determined using the following basic order:
-			 * { down, up, front, back, right, left }. This order was chosen because it
-			 * converts to the following order of absolute directions when west is said to
-			 * be 'forward': { down, up west, east, north, south } - this is the order of
-			 * shape updates, with the vertical directions moved to the front.
-			 */
-
-			int rightward = (forward + 1) & 0b11;
-			int backward  = (forward + 2) & 0b11;
-			int leftward  = (forward + 3) & 0b11;
-			int downward  = Directions.DOWN;
-			int upward    = Directions.UP;
-
-			Node front = nodes.getNeighbor(source, forward);
-			Node right = nodes.getNeighbor(source, rightward);
-			Node back  = nodes.getNeighbor(source, backward);
-			Node left  = nodes.getNeighbor(source, leftward);
-			Node below = nodes.getNeighbor(source, downward);
-			Node above = nodes.getNeighbor(source, upward);
-
-			// direct neighbors (6)
-			action.accept(below);
-			action.accept(above);
-			action.accept(front);
-			action.accept(back);
-			action.accept(right);
-			action.accept(left);
-
-			// diagonal neighbors (12)
-			action.accept(nodes.getNeighbor(below, forward));
-			action.accept(nodes.getNeighbor(above, backward));
-			action.accept(nodes.getNeighbor(below, backward));
-			action.accept(nodes.getNeighbor(above, forward));
-			action.accept(nodes.getNeighbor(below, rightward));
-			action.accept(nodes.getNeighbor(above, leftward));
-			action.accept(nodes.getNeighbor(below, leftward));
-			action.accept(nodes.getNeighbor(above, rightward));
-			action.accept(nodes.getNeighbor(front, rightward));
-			action.accept(nodes.getNeighbor(back, leftward));
-			action.accept(nodes.getNeighbor(front, leftward));
-			action.accept(nodes.getNeighbor(back, rightward));
-
-			// far neighbors (6)
-			action.accept(nodes.getNeighbor(below, downward));
-			action.accept(nodes.getNeighbor(above, upward));
-			action.accept(nodes.getNeighbor(front, forward));
-			action.accept(nodes.getNeighbor(back, backward));
-			action.accept(nodes.getNeighbor(right, rightward));
-			action.accept(nodes.getNeighbor(left, leftward));
-		}
-	},
+		// direct neighbors (6)
+		"D U F B R L",
+		// diagonal neighbors (12)
+		"DF UB DB UF DR UL DL UR FR BL FL BR",
+		// far neighbors (6)
+		"DD UU FF BB RR LL"
+	),
+	/**
+	 * This iteration order is designed to be an inversion of the above update
+	 * order, and is determined as follows:
+	 * <br>
+	 * 1. Each neighbor is identified by the step(s) you must take, starting at the
+	 * source, to reach it. Each step is 1 block, thus the position of a neighbor is
+	 * encoded by the direction(s) of the step(s), e.g. (right), (down), (up, left),
+	 * etc.
+	 * <br>
+	 * 2. Neighbors are iterated over in pairs that lie on opposite sides of the
+	 * source.
+	 * <br>
+	 * 3. Neighbors are iterated over in order of their distance from the source,
+	 * moving inward. This means they are iterated over in 3 groups: neighbors that
+	 * are 2 blocks directly out first, then diagonal neighbors, and last are direct
+	 * neighbors.
+	 * <br>
+	 * 4. The order within each group is determined using the following basic order:
+	 * { down, up, front, back, right, left }. This order was chosen because it
+	 * converts to the following order of absolute directions when west is said to
+	 * be 'forward': { down, up west, east, north, south } - this is the order of
+	 * shape updates, with the vertical directions moved to the front.
+	 */
 	VERTICAL_FIRST_INWARD(
-		new int[][] {
-			new int[] { Directions.DOWN, Directions.UP, Directions.WEST , Directions.EAST , Directions.NORTH, Directions.SOUTH },
-			new int[] { Directions.DOWN, Directions.UP, Directions.NORTH, Directions.SOUTH, Directions.EAST , Directions.WEST  },
-			new int[] { Directions.DOWN, Directions.UP, Directions.EAST , Directions.WEST , Directions.SOUTH, Directions.NORTH },
-			new int[] { Directions.DOWN, Directions.UP, Directions.SOUTH, Directions.NORTH, Directions.WEST , Directions.EAST  }
-		},
-		new int[][] {
-			new int[] { Directions.WEST , Directions.EAST , Directions.NORTH, Directions.SOUTH },
-			new int[] { Directions.NORTH, Directions.SOUTH, Directions.EAST , Directions.WEST  },
-			new int[] { Directions.EAST , Directions.WEST , Directions.SOUTH, Directions.NORTH },
-			new int[] { Directions.SOUTH, Directions.NORTH, Directions.WEST , Directions.EAST  }
-		}
-	) {
-
-		@Override
-		public void forEachNeighbor(NodeProvider nodes, Node source, int forward, Consumer<Node> action) {
-			/*
-			 * This iteration order is designed to be an inversion of the above update
-			 * order, and is determined as follows:
-			 * <br>
-			 * 1. Each neighbor is identified by the step(s) you must take, starting at the
-			 * source, to reach it. Each step is 1 block, thus the position of a neighbor is
-			 * encoded by the direction(s) of the step(s), e.g. (right), (down), (up, left),
-			 * etc.
-			 * <br>
-			 * 2. Neighbors are iterated over in pairs that lie on opposite sides of the
-			 * source.
-			 * <br>
-			 * 3. Neighbors are iterated over in order of their distance from the source,
-			 * moving inward. This means they are iterated over in 3 groups: neighbors that
-			 * are 2 blocks directly out first, then diagonal neighbors, and last are direct
-			 * neighbors.
-			 * <br>
-			 * 4. The order within each group is determined using the following basic order:
-			 * { down, up, front, back, right, left }. This order was chosen because it
-			 * converts to the following order of absolute directions when west is said to
-			 * be 'forward': { down, up west, east, north, south } - this is the order of
-			 * shape updates, with the vertical directions moved to the front.
-			 */
-
-			int rightward = (forward + 1) & 0b11;
-			int backward  = (forward + 2) & 0b11;
-			int leftward  = (forward + 3) & 0b11;
-			int downward  = Directions.DOWN;
-			int upward    = Directions.UP;
-
-			Node front = nodes.getNeighbor(source, forward);
-			Node right = nodes.getNeighbor(source, rightward);
-			Node back  = nodes.getNeighbor(source, backward);
-			Node left  = nodes.getNeighbor(source, leftward);
-			Node below = nodes.getNeighbor(source, downward);
-			Node above = nodes.getNeighbor(source, upward);
+		// far neighbors (6)
+		"DD UU FF BB RR LL",
+		// diagonal neighbors (12)
+		"DF UB DB UF DR UL DL UR FR BL FL BR",
+		// direct neighbors (6)
+		"D U F B R L"
+	);
+
+	// relative steps, as used in the neighbor specs above
+	private static final String STEPS = "FRBLDU";
+
+	// a neighbor is packed into an int as 1 or 2 absolute steps from the source
+	private static final int STEP_BITS = 3;
+	private static final int STEP_MASK = 0b111;
+	private static final int TWO_STEPS = 1 << (2 * STEP_BITS);
+
+	private final int[][] neighbors;
+	private final int[][] directNeighbors;
+	private final int[][] cardinalNeighbors;
 
-			// far neighbors (6)
-			action.accept(nodes.getNeighbor(below, downward));
-			action.accept(nodes.getNeighbor(above, upward));
-			action.accept(nodes.getNeighbor(front, forward));
-			action.accept(nodes.getNeighbor(back, backward));
-			action.accept(nodes.getNeighbor(right, rightward));
-			action.accept(nodes.getNeighbor(left, leftward));
+	/**
+	 * Each neighbor group is a space separated list of neighbors, each given as
+	 * 1 or 2 steps relative to the source: (F)ront, (R)ight, (B)ack, (L)eft,
+	 * (D)own and (U)p. These are compiled into tables of absolute steps for
+	 * each 'forward' direction, so that iterating over the neighbors is a loop
+	 * over a primitive array.
+	 */
+	private UpdateOrder(String... neighborGroups) {
+		this.neighbors = new int[Directions.HORIZONTAL.length][];
+		this.directNeighbors = new int[Directions.HORIZONTAL.length][];
+		this.cardinalNeighbors = new int[Directions.HORIZONTAL.length][];
+
+		String[] specs = String.join(" ", neighborGroups).split(" ");
+
+		for (int forward = 0; forward < Directions.HORIZONTAL.length; forward++) {
+			int[] neighbors = new int[specs.length];
+			int[] directNeighbors = new int[Directions.ALL.length];
+			int[] cardinalNeighbors = new int[Directions.HORIZONTAL.length];
+			int directCount = 0;
+			int cardinalCount = 0;
+
+			for (int i = 0; i < specs.length; i++) {
+				String spec = specs[i];
+
+				if (spec.length() == 1) {
+					int iDir = step(spec.charAt(0), forward);
+
+					neighbors[i] = iDir;
+					directNeighbors[directCount++] = iDir;
+
+					if (iDir < Directions.HORIZONTAL.length) {
+						cardinalNeighbors[cardinalCount++] = iDir;
+					}
+				} else if (spec.length() == 2) {
+					neighbors[i] = step(spec.charAt(0), forward) | (step(spec.charAt(1), forward) << STEP_BITS) | TWO_STEPS;
+				} else {
+					throw new IllegalArgumentException("invalid neighbor " + spec);
+				}
+			}
+			if (directCount != Directions.ALL.length || cardinalCount != Directions.HORIZONTAL.length) {
+				throw new IllegalArgumentException("update order must include each direct neighbor");
+			}
+
+			this.neighbors[forward] = neighbors;
+			this.directNeighbors[forward] = directNeighbors;
+			this.cardinalNeighbors[forward] = cardinalNeighbors;
+		}
+	}
 
-			// diagonal neighbors (12)
-			action.accept(nodes.getNeighbor(below, forward));
-			action.accept(nodes.getNeighbor(above, backward));
-			action.accept(nodes.getNeighbor(below, backward));
-			action.accept(nodes.getNeighbor(above, forward));
-			action.accept(nodes.getNeighbor(below, rightward));
-			action.accept(nodes.getNeighbor(above, leftward));
-			action.accept(nodes.getNeighbor(below, leftward));
-			action.accept(nodes.getNeighbor(above, rightward));
-			action.accept(nodes.getNeighbor(front, rightward));
-			action.accept(nodes.getNeighbor(back, leftward));
-			action.accept(nodes.getNeighbor(front, leftward));
-			action.accept(nodes.getNeighbor(back, rightward));
+	private static int step(char c, int forward) {
+		int step = STEPS.indexOf(c);
 
-			// direct neighbors (6)
-			action.accept(below);
-			action.accept(above);
-			action.accept(front);
-			action.accept(back);
-			action.accept(right);
-			action.accept(left);
+		if (step < 0) {
+			throw new IllegalArgumentException("invalid step " + c);
 		}
-	};
 
-	private final int[][] directNeighbors;
-	private final int[][] cardinalNeighbors;
-
-	private UpdateOrder(int[][] directNeighbors, int[][] cardinalNeighbors) {
-		this.directNeighbors = directNeighbors;
-		this.cardinalNeighbors = cardinalNeighbors;
+		return (step < Directions.HORIZONTAL.length) ? (forward + step) & 0b11 : Directions.DOWN + (step - Directions.HORIZONTAL.length);
 	}
 
 	public String id() {
@@ -385,6 +229,26 @@ public enum UpdateOrder {
 	 * Each update order must include the source's direct neighbors, but further
 	 * neighbors may not be included.
 	 */
-	public abstract void forEachNeighbor(NodeProvider nodes, Node source, int forward, Consumer<Node> action);
+	public void forEachNeighbor(NodeProvider nodes, WireNode source, int forward, NeighborConsumer action) {
+		for (int steps : neighbors[forward]) {
+			Node neighbor = nodes.getNeighbor(source, steps & STEP_MASK);
+
+			if ((steps & TWO_STEPS) != 0) {
+				neighbor = nodes.getNeighbor(neighbor, (steps >>> STEP_BITS) & STEP_MASK);
+			}
+
+			action.accept(neighbor, source);
+		}
+	}
+
+	@FunctionalInterface
+	public static interface NeighborConsumer {
 
+		/**
+		 * @param neighbor the neighbor that is being iterated over
+		 * @param source the wire around which neighbors are iterated over
+		 */
+		public void accept(Node neighbor, WireNode source);
+
+	}
 }
@@ -1,48 +1,59 @@
 package alternate.current.wire;
 
-import java.util.Arrays;
-import java.util.function.Consumer;
-
 import alternate.current.wire.WireHandler.Directions;
 import alternate.current.wire.WireHandler.NodeProvider;
 
+/**
+ * This class keeps track of the connections between a wire (the 'owner') and
+ * neighboring wires. Two wires are considered to be connected if power can
+ * flow from one wire to the other (and/or vice versa).
+ *
+ * <p>
+ * A wire can have at most 3 connections in each cardinal direction: one to a
+ * wire directly to the side, one to a wire below that, and one to a wire above
+ * that. Each of these 12 possible connections is given a slot, and whether
+ * power can flow through a connection is encoded in two bit masks, one for
+ * each direction of flow.
+ *
+ * @author Space Walker
+ */
 public class WireConnectionManager {
 
-	/** The owner of these connections. */
-	final WireNode owner;
+	// slot offsets within a cardinal direction
+	private static final int SIDE = 0;
+	private static final int DOWN = 1;
+	private static final int UP   = 2;
 
-	/** The first connection for each cardinal direction. */
-	private final WireConnection[] heads;
+	private static final int SLOTS_PER_DIR = 3;
+	private static final int DIR_MASK      = 0b111;
 
-	private WireConnection head;
-	private WireConnection tail;
+	/** The owner of these connections. */
+	final WireNode owner;
 
-	/** The total number of connections. */
-	int total;
+	/** The connected wires, indexed by slot. */
+	private final WireNode[] wires;
 
 	/**
-	 * A 4 bit number that encodes which in direction(s) the owner has connections
-	 * to other wires.
+	 * A 24 bit number. The lower 12 bits encode the slots through which the owner
+	 * can provide power to the connected wire, the upper 12 bits encode the slots
+	 * through which the connected wire can provide power to the owner.
 	 */
-	private int flowTotal;
+	private int mask;
+
 	/** The direction of flow based connections to other wires. */
 	int iFlowDir;
 
 	WireConnectionManager(WireNode owner) {
 		this.owner = owner;
 
-		this.heads = new WireConnection[Directions.HORIZONTAL.length];
-
-		this.total = 0;
+		this.wires = new WireNode[Directions.HORIZONTAL.length * SLOTS_PER_DIR];
 
-		this.flowTotal = 0;
+		this.mask = 0;
 		this.iFlowDir = -1;
 	}
 
 	void set(NodeProvider nodes) {
-		if (total > 0) {
-			clear();
-		}
+		clear();
 
 		boolean belowIsConductor = nodes.getNeighbor(owner, Directions.DOWN).isConductor();
 		boolean aboveIsConductor = nodes.getNeighbor(owner, Directions.UP).isConductor();
@@ -51,7 +62,7 @@ public class WireConnectionManager {
 			Node neighbor = nodes.getNeighbor(owner, iDir);
 
 			if (neighbor.isWire()) {
-				add(neighbor.asWire(), iDir, true, true);
+				add(neighbor.asWire(), iDir, SIDE, true, true);
 			} else {
 				boolean sideIsConductor = neighbor.isConductor();
 
@@ -59,76 +70,124 @@ public class WireConnectionManager {
 					Node node = nodes.getNeighbor(neighbor, Directions.DOWN);
 
 					if (node.isWire()) {
-						add(node.asWire(), iDir, belowIsConductor, true);
+						add(node.asWire(), iDir, DOWN, belowIsConductor, true);
 					}
 				}
 				if (!aboveIsConductor) {
 					Node node = nodes.getNeighbor(neighbor, Directions.UP);
 
 					if (node.isWire()) {
-						add(node.asWire(), iDir, true, sideIsConductor);
+						add(node.asWire(), iDir, UP, true, sideIsConductor);
 					}
 				}
 			}
 		}
 
-		if (total > 0) {
-			iFlowDir = WireHandler.FLOW_IN_TO_FLOW_OUT[flowTotal];
+		if (mask != 0) {
+			iFlowDir = WireHandler.FLOW_IN_TO_FLOW_OUT[flowTotal()];
 		}
 	}
 
-	private void clear() {
-		Arrays.fill(heads, null);
-
-		head = null;
-		tail = null;
+	void clear() {
+		if (mask == 0) {
+			return;
+		}
 
-		total = 0;
+		for (int slots = connected(); slots != 0; slots &= (slots - 1)) {
+			wires[Integer.numberOfTrailingZeros(slots)] = null;
+		}
 
-		flowTotal = 0;
+		mask = 0;
 		iFlowDir = -1;
 	}
 
-	private void add(WireNode wire, int iDir, boolean offer, boolean accept) {
-		add(new WireConnection(wire, iDir, offer, accept));
-	}
+	private void add(WireNode wire, int iDir, int offset, boolean offer, boolean accept) {
+		int slot = iDir * SLOTS_PER_DIR + offset;
 
-	private void add(WireConnection connection) {
-		if (head == null) {
-			head = connection;
-			tail = connection;
-		} else {
-			tail.next = connection;
-			tail = connection;
+		wires[slot] = wire;
+
+		if (offer) {
+			mask |= (1 << slot);
+		}
+		if (accept) {
+			mask |= (1 << (slot + 12));
 		}
+	}
 
-		total++;
+	/**
+	 * Return a 12 bit number that encodes which slots hold a connection.
+	 */
+	private int connected() {
+		return (mask | (mask >>> 12)) & 0xFFF;
+	}
 
-		if (heads[connection.iDir] == null) {
-			heads[connection.iDir] = connection;
-			flowTotal |= (1 << connection.iDir);
+	/**
+	 * Return a 4 bit number that encodes in which direction(s) the owner has
+	 * connections to other wires.
+	 */
+	private int flowTotal() {
+		int connected = connected();
+		int flowTotal = 0;
+
+		for (int iDir = 0; iDir < Directions.HORIZONTAL.length; iDir++) {
+			if (((connected >>> (iDir * SLOTS_PER_DIR)) & DIR_MASK) != 0) {
+				flowTotal |= (1 << iDir);
+			}
 		}
+
+		return flowTotal;
 	}
 
 	/**
-	 * Iterate over all connections. Use this method if the iteration order is not
-	 * important.
+	 * Iterate over all connections through which the owner can receive power. Use
+	 * this method if the iteration order is not important.
 	 */
-	void forEach(Consumer<WireConnection> consumer) {
-		for (WireConnection c = head; c != null; c = c.next) {
-			consumer.accept(c);
+	void forEachAccepting(ConnectionConsumer consumer) {
+		for (int slots = mask >>> 12; slots != 0; slots &= (slots - 1)) {
+			int slot = Integer.numberOfTrailingZeros(slots);
+			consumer.accept(owner, wires[slot], slot / SLOTS_PER_DIR);
 		}
 	}
 
 	/**
-	 * Iterate over all connections. Use this method if the iteration order is
-	 * important.
+	 * Iterate over all connections through which the owner can provide power. Use
+	 * this method if the iteration order is important.
 	 */
-	void forEach(Consumer<WireConnection> consumer, UpdateOrder updateOrder, int iFlowDir) {
+	void forEachOffering(ConnectionConsumer consumer, UpdateOrder updateOrder, int iFlowDir) {
+		int offering = mask & 0xFFF;
+
+		if (offering == 0) {
+			return;
+		}
+
+		// If power is offered through just one connection, as is the case at
+		// the ends of runs of wire and along stairs of wire, there is no need
+		// to consult the update order.
+		if ((offering & (offering - 1)) == 0) {
+			int slot = Integer.numberOfTrailingZeros(offering);
+			consumer.accept(owner, wires[slot], slot / SLOTS_PER_DIR);
+
+			return;
+		}
+
 		for (int iDir : updateOrder.cardinalNeighbors(iFlowDir)) {
-			for (WireConnection c = heads[iDir]; c != null && c.iDir == iDir; c = c.next) {
-				consumer.accept(c);
+			int offset = iDir * SLOTS_PER_DIR;
+
+			for (int slots = (offering >>> offset) & DIR_MASK; slots != 0; slots &= (slots - 1)) {
+				consumer.accept(owner, wires[offset + Integer.numberOfTrailingZeros(slots)], iDir);
 			}
 		}
 	}
+
+	@FunctionalInterface
+	public static interface ConnectionConsumer {
+
+		/**
+		 * @param owner the owner of the connection
+		 * @param wire the connected wire
+		 * @param iDir the cardinal direction to the connected wire
+		 */
+		public void accept(WireNode owner, WireNode wire, int iDir);
+
+	}
 }
@@ -1,21 +1,27 @@
 package alternate.current.wire;
 
-import java.util.Iterator;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Queue;
+import java.util.function.Consumer;
+import java.util.function.LongPredicate;
 
 //import alternate.current.AlternateCurrentMod;
 //import alternate.current.util.profiler.Profiler;
+import alternate.current.wire.UpdateOrder.NeighborConsumer;
+import alternate.current.wire.WireConnectionManager.ConnectionConsumer;
 
-import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
-import it.unimi.dsi.fastutil.longs.Long2ObjectMap.Entry;
-import it.unimi.dsi.fastutil.longs.Long2ObjectMaps;
-import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
 
 import net.minecraft.core.BlockPos;
+import net.minecraft.core.BlockPos.MutableBlockPos;
 import net.minecraft.core.Direction;
 import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.ChunkPos;
 import net.minecraft.world.level.block.Block;
 import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.RedStoneWireBlock;
 import net.minecraft.world.level.block.state.BlockState;
 import net.minecraft.world.level.redstone.InstantNeighborUpdater;
 import net.minecraft.world.level.redstone.NeighborUpdater;
@@ -241,21 +247,80 @@ public class WireHandler {
 	private final Config config;
 
 	/** Map of wires and neighboring blocks. */
-	private final Long2ObjectMap<Node> nodes;
+	private final NodeMap nodes;
 	/** Queue for the breadth-first search through the network. */
-	private final Queue<WireNode> search;
+	private final SimpleQueue search;
 	/** Queue of updates to wires and neighboring blocks. */
 	private final Queue<Node> updates;
+	/** Node counts per chunk, used to cap the size of the persistent graph. */
+	private final ChunkTracker chunks;
+	/** Wires that were discovered during the current network update. */
+	private final List<WireNode> discovered;
+	/** Nodes that were dropped from the persistent graph during the current network update. */
+	private final List<Node> droppedNodes;
+	/** Chunk sections that are read from and written to during a network update. */
+	private final SectionCache sections;
+	/** External power of wires, kept in between network updates if enabled. */
+	private final ExternalPowerCache externalPowers;
 
 	private final NeighborUpdater neighborUpdater;
+	/**
+	 * Passed into signal queries, which only read the position. Other calls into
+	 * vanilla code use the node's own position, as they may hold on to it.
+	 */
+	private final MutableBlockPos signalPos;
+	/**
+	 * Used for shape updates to the neighbors of wires that change power. Those
+	 * can start nested network updates, which use the signal position.
+	 */
+	private final MutableBlockPos shapePos;
+
+	// Providers and consumers are created once up front, so that they do not
+	// need to be allocated every time they are used during a network update.
+	private final NodeProvider neighborProvider;
+	private final ConnectionConsumer wirePowerFinder;
+	private final ConnectionConsumer unsearchedWirePowerFinder;
+	private final ConnectionConsumer neighborSearcher;
+	private final ConnectionConsumer powerTransmitter;
+	private final NeighborConsumer neighborQueuer;
+	private final LongPredicate evictedChunkTester;
+	private final Consumer<Node> nodeReleaser;
+
+	private final Metrics metrics;
 
 	// Rather than creating new nodes every time a network is updated we keep
 	// a cache of nodes that can be re-used.
 	private Node[] nodeCache;
 	private int nodeCount;
+	// The same goes for wires.
+	private WireNode[] wireCache;
+	private int wireCount;
+	// If the graph is kept alive in between updates, nodes stay in use until
+	// they are evicted, so the caches above cannot be reset. Instead, evicted
+	// nodes are collected here so that they can be re-used.
+	private Node[] freeNodes;
+	private int freeNodeCount;
+	private WireNode[] freeWires;
+	private int freeWireCount;
+	/** The chunks that are being evicted from the persistent graph. */
+	private final LongOpenHashSet evictedChunks;
 
+	/**
+	 * Signals are memoized on nodes while this stamp is current. It changes each
+	 * time the network is (re-)entered, since block changes may have occurred.
+	 */
+	private int signalStamp;
+	/**
+	 * The current generation of the graph. Nodes from older generations are
+	 * invalid, which allows all nodes to be invalidated at once.
+	 */
+	private int generation;
 	/** Is this WireHandler currently working through the update queue? */
 	private boolean updating;
+	/** Are nodes kept alive in between network updates? */
+	private boolean persistentGraph;
+	/** Is the external power of wires kept in between network updates? */
+	private boolean cacheExternalPower;
 
 	public WireHandler(ServerLevel level, LevelStorageAccess storage) {
 		this.level = level;
@@ -263,21 +328,58 @@ public class WireHandler {
 
 		this.config.load();
 
-		this.nodes = new Long2ObjectOpenHashMap<>();
+		this.nodes = new NodeMap();
 		this.search = new SimpleQueue();
 		this.updates = new PriorityQueue();
+		this.chunks = new ChunkTracker();
+		this.discovered = new ArrayList<>();
+		this.droppedNodes = new ArrayList<>();
+		this.sections = new SectionCache(this.level);
+		this.externalPowers = new ExternalPowerCache();
 
 		this.neighborUpdater = new InstantNeighborUpdater(this.level);
+		this.signalPos = new MutableBlockPos();
+		this.shapePos = new MutableBlockPos();
+
+		this.neighborProvider = this::getNeighbor;
+		this.wirePowerFinder = (wire, neighbor, iDir) -> findWirePower(wire, neighbor, iDir, false);
+		this.unsearchedWirePowerFinder = (wire, neighbor, iDir) -> findWirePower(wire, neighbor, iDir, true);
+		this.neighborSearcher = this::searchNeighbor;
+		this.powerTransmitter = this::transmitPower;
+		this.neighborQueuer = this::queueNeighbor;
+		this.evictedChunkTester = this::isEvicted;
+		this.nodeReleaser = this::releaseNode;
+
+		this.metrics = new Metrics();
 
 		this.nodeCache = new Node[16];
-		this.fillNodeCache(0, 16);
+		this.wireCache = new WireNode[16];
+		this.freeNodes = new Node[16];
+		this.freeWires = new WireNode[16];
+		this.evictedChunks = new LongOpenHashSet();
+
+		this.persistentGraph = this.config.getPersistentGraph();
+		this.cacheExternalPower = this.config.getExternalPowerCache();
 	}
 
 	public Config getConfig() {
 		return config;
 	}
 
-	private Node getOrAddNode(BlockPos pos) {
+	public Metrics getMetrics() {
+		return metrics;
+	}
+
+	/**
+	 * Check whether the given block state counts towards the signal sources of a
+	 * chunk section. Chunk sections keep their counts up to date with this, so
+	 * that they agree with how the counts are made.
+	 */
+	public static boolean isSignalSource(BlockState state) {
+		return BlockStateTable.isSignalSource(state);
+	}
+
+	private Node getOrAddNode(long pos) {
 		// just pass in null, then the state will only be retrieved
 		// if there is no node as this position yet
 		return getOrAddNode(pos, null);
@@ -287,66 +389,133 @@ public class WireHandler {
 	 * Retrieve the {@link alternate.current.wire.Node Node} that represents the
 	 * block at the given position in the level.
 	 */
-	private Node getOrAddNode(BlockPos pos, BlockState state) {
-		return nodes.compute(pos.asLong(), (key, node) -> {
-			if (node == null) {
-				// If there is not yet a node at this position, retrieve and
-				// update one from the cache.
-				return getNextNode(pos, state != null ? state : level.getBlockState(pos));
+	private Node getOrAddNode(long pos, BlockState state) {
+		Node node = nodes.get(pos);
+
+		if (node == null) {
+			if (persistentGraph) {
+				chunks.add(pos);
 			}
-			if (node.invalid) {
-				return revalidateNode(node);
+
+			// If there is not yet a node at this position, retrieve and
+			// update one from the cache.
+			node = getNextNode(pos, state != null ? state : sections.getBlockState(pos));
+			nodes.put(pos, node);
+		} else if (isInvalid(node)) {
+			Node oldNode = node;
+			node = revalidateNode(node);
+
+			if (node != oldNode) {
+				nodes.put(pos, node);
+
+				if (persistentGraph) {
+					droppedNodes.add(oldNode);
+				}
 			}
+		}
 
-			return node;
-		});
+		return node;
 	}
 
 	/**
 	 * Remove and return the {@link alternate.current.wire.Node Node} at the given
 	 * position.
 	 */
-	private Node removeNode(BlockPos pos) {
-		return nodes.remove(pos.asLong());
+	private Node removeNode(long pos) {
+		Node node = nodes.remove(pos);
+
+		if (node != null && persistentGraph) {
+			chunks.remove(pos);
+			droppedNodes.add(node);
+		}
+
+		return node;
 	}
 
 	/**
 	 * Return a node that represents the given position and block state. If it is a
-	 * wire, then create a new {@link alternate.current.wire.WireNode WireNode}.
-	 * Otherwise, grab the next {@link alternate.current.wire.Node Node} from the
-	 * cache and update it.
+	 * wire, grab the next {@link alternate.current.wire.WireNode WireNode} from
+	 * the cache, otherwise grab the next {@link alternate.current.wire.Node Node}
+	 * from the cache, and update it.
 	 */
-	private Node getNextNode(BlockPos pos, BlockState state) {
-		return state.is(Blocks.REDSTONE_WIRE) ? new WireNode(level, pos, state) : getNextNode().set(pos, state, true);
+	private Node getNextNode(long pos, BlockState state) {
+		Node node = state.is(Blocks.REDSTONE_WIRE) ? getNextWire().set(pos, state, true) : getNextNode().set(pos, state, true);
+		node.generation = generation;
+		recordModCount(node, sections.get(node.pos));
+
+		return node;
 	}
 
 	/**
 	 * Grab the first unused node from the cache. If all of the cache is already in
-	 * use, increase it in size first.
+	 * use, increase it in size first. The cache is only reset after a network
+	 * update, so if the graph is kept alive in between updates, nodes that were
+	 * evicted from the graph are re-used instead.
 	 */
 	private Node getNextNode() {
+		if (persistentGraph) {
+			if (freeNodeCount == 0) {
+				metrics.nodePoolMisses++;
+				return new Node(level);
+			}
+
+			Node node = freeNodes[--freeNodeCount];
+			freeNodes[freeNodeCount] = null;
+			metrics.nodePoolHits++;
+
+			return node;
+		}
 		if (nodeCount == nodeCache.length) {
-			increaseNodeCache();
+			nodeCache = Arrays.copyOf(nodeCache, nodeCache.length << 1);
+		}
+
+		Node node = nodeCache[nodeCount];
+
+		if (node == null) {
+			node = nodeCache[nodeCount] = new Node(level);
+			metrics.nodePoolMisses++;
+		} else {
+			metrics.nodePoolHits++;
 		}
 
-		return nodeCache[nodeCount++];
+		nodeCount++;
+
+		return node;
 	}
 
-	private void increaseNodeCache() {
-		Node[] oldCache = nodeCache;
-		nodeCache = new Node[oldCache.length << 1];
+	/**
+	 * Grab the first unused wire from the cache. This works the same as grabbing
+	 * a regular node from the cache.
+	 */
+	private WireNode getNextWire() {
+		if (persistentGraph) {
+			if (freeWireCount == 0) {
+				metrics.wirePoolMisses++;
+				return new WireNode(level);
+			}
+
+			WireNode wire = freeWires[--freeWireCount];
+			freeWires[freeWireCount] = null;
+			metrics.wirePoolHits++;
 
-		for (int index = 0; index < oldCache.length; index++) {
-			nodeCache[index] = oldCache[index];
+			return wire;
+		}
+		if (wireCount == wireCache.length) {
+			wireCache = Arrays.copyOf(wireCache, wireCache.length << 1);
 		}
 
-		fillNodeCache(oldCache.length, nodeCache.length);
-	}
+		WireNode wire = wireCache[wireCount];
 
-	private void fillNodeCache(int start, int end) {
-		for (int index = start; index < end; index++) {
-			nodeCache[index] = new Node(level);
+		if (wire == null) {
+			wire = wireCache[wireCount] = new WireNode(level);
+			metrics.wirePoolMisses++;
+		} else {
+			metrics.wirePoolHits++;
 		}
+
+		wireCount++;
+
+		return wire;
 	}
 
 	/**
@@ -356,37 +525,72 @@ public class WireHandler {
 	 * Otherwise, the node can be quickly revalidated with the new block state.
 	 */
 	private Node revalidateNode(Node node) {
-		if (!node.invalid) {
+		if (!isInvalid(node)) {
 			return node;
 		}
 
-		BlockPos pos = node.pos;
-		BlockState state = level.getBlockState(pos);
+		long pos = node.pos;
+		SectionCache.Entry entry = sections.get(pos);
 
-		boolean wasWire = node.isWire();
-		boolean isWire = state.is(Blocks.REDSTONE_WIRE);
+		// If no blocks in this node's chunk section have changed since it was
+		// last validated, its block state is still accurate and does not need
+		// to be read again.
+		if (!isUnchanged(node, entry)) {
+			BlockState state = (entry == null) ? level.getBlockState(node.blockPos()) : entry.getBlockState(pos);
 
-		if (wasWire != isWire) {
-			return getNextNode(pos, state);
+			boolean wasWire = node.isWire();
+			boolean isWire = state.is(Blocks.REDSTONE_WIRE);
+
+			if (wasWire != isWire) {
+				return getNextNode(pos, state);
+			}
+			// Outside of network updates, wires can only be invalidated if the
+			// graph is persistent. In that case the block state was changed by
+			// something other than this wire handler, and the power level the
+			// node holds can no longer be trusted.
+			if (isWire && !updating && state != node.state) {
+				return getNextNode(pos, state);
+			}
+
+			// No need to update the block state of a wire - it will grab
+			// the current block state just before setting power anyway.
+			if (!isWire) {
+				node.set(pos, state, false);
+			}
+
+			recordModCount(node, entry);
 		}
 
 		node.invalid = false;
+		node.generation = generation;
 
-		if (isWire) {
-			// No need to update the block state of this wire - it will grab
-			// the current block state just before setting power anyway.
+		if (node.isWire()) {
 			WireNode wire = node.asWire();
-
-			wire.root = false;
-			wire.discovered = false;
-			wire.searched = false;
-		} else {
-			node.set(pos, state, false);
+			wire.unmark(WireNode.ROOT | WireNode.DISCOVERED | WireNode.SEARCHED);
 		}
 
 		return node;
 	}
 
+	/**
+	 * Check whether any blocks in the chunk section of the given node have changed
+	 * since the node was last validated. Nodes whose properties depend on their
+	 * position are always considered changed, as a change outside the section
+	 * could affect them.
+	 */
+	private boolean isUnchanged(Node node, SectionCache.Entry entry) {
+		return entry != null && !node.isPositional() && node.section == entry.section && node.sectionModCount == entry.modCount();
+	}
+
+	private void recordModCount(Node node, SectionCache.Entry entry) {
+		if (entry == null) {
+			node.section = null;
+		} else {
+			node.section = entry.section;
+			node.sectionModCount = entry.modCount();
+		}
+	}
+
 	/**
 	 * Retrieve the neighbor of a node in the given direction and create a link
 	 * between the two nodes if they are not yet linked. This link makes accessing
@@ -395,9 +599,8 @@ public class WireHandler {
 	private Node getNeighbor(Node node, int iDir) {
 		Node neighbor = node.neighbors[iDir];
 
-		if (neighbor == null || neighbor.invalid) {
-			Direction dir = Directions.ALL[iDir];
-			BlockPos pos = node.pos.relative(dir);
+		if (neighbor == null || isInvalid(neighbor)) {
+			long pos = BlockPos.offset(node.pos, Directions.ALL[iDir]);
 
 			Node oldNeighbor = neighbor;
 			neighbor = getOrAddNode(pos);
@@ -417,7 +620,31 @@ public class WireHandler {
 	 * This method should be called whenever a wire receives a block update.
 	 */
 	public boolean onWireUpdated(BlockPos pos, BlockState state, Orientation orientation) {
-		Node node = getOrAddNode(pos, state);
+		enter();
+
+		// Most neighbor updates a wire receives do not change its power level.
+		// Outside of network updates, check for that before any nodes are built.
+		// Note that the neighbor block vanilla passes along is the block that was
+		// there before the change, so it cannot be used to rule out a change.
+		if (cacheExternalPower) {
+			// Signal sources can change their output without changing their
+			// block state, but they always emit block updates when they do.
+			// Every wire they power is notified, but a network update started
+			// by the first of those wires may reach the others before they are
+			// notified themselves. Those wires are within a distance of 4 of
+			// this wire: 2 to the source, and 2 from the source to the wire.
+			externalPowers.invalidate(pos.asLong(), 4);
+		}
+		if (!updating) {
+			if (!needsPowerChange(pos, state)) {
+				metrics.wireUpdatesSkipped++;
+				return true;
+			}
+
+			metrics.wireUpdatesPassed++;
+		}
+
+		Node node = getOrAddNode(pos.asLong(), state);
 
 		if (!node.isWire()) {
 			return false; // we should never get here
@@ -437,14 +664,16 @@ public class WireHandler {
 	 * This method should be called whenever a wire is placed.
 	 */
 	public void onWireAdded(BlockPos pos, BlockState state) {
-		Node node = getOrAddNode(pos, state);
+		enter();
+
+		Node node = getOrAddNode(pos.asLong(), state);
 
 		if (!node.isWire()) {
 			return; // we should never get here
 		}
 
 		WireNode wire = node.asWire();
-		wire.added = true;
+		wire.mark(WireNode.ADDED);
 
 		invalidate();
 		revalidateNode(wire);
@@ -456,21 +685,27 @@ public class WireHandler {
 	 * This method should be called whenever a wire is removed.
 	 */
 	public void onWireRemoved(BlockPos pos, BlockState state) {
-		Node node = removeNode(pos);
+		enter();
+
+		Node node = removeNode(pos.asLong());
 		WireNode wire;
 
 		if (node == null || !node.isWire()) {
-			wire = new WireNode(level, pos, state);
+			wire = getNextWire().set(pos.asLong(), state, true);
+
+			if (persistentGraph) {
+				droppedNodes.add(wire);
+			}
 		} else {
 			wire = node.asWire();
 		}
 
 		wire.invalid = true;
-		wire.removed = true;
+		wire.mark(WireNode.REMOVED);
 
 		// If these fields are set to 'true', the removal of this wire was part of
 		// already ongoing power changes, so we can exit early here.
-		if (updating && wire.shouldBreak) {
+		if (updating && wire.is(WireNode.SHOULD_BREAK)) {
 			return;
 		}
 
@@ -480,24 +715,199 @@ public class WireHandler {
 		tryUpdate();
 	}
 
+	/**
+	 * This method should be called whenever a block is set in the level. If the
+	 * graph is persistent, the node at the given position is invalidated, so that
+	 * it is revalidated before it is used again. Blocks can also be changed
+	 * without going through the level, but each network update starts a new
+	 * generation of the graph, and the mod counts of chunk sections catch those
+	 * changes when nodes are revalidated.
+	 */
+	public void onBlockChanged(BlockPos pos) {
+		if (cacheExternalPower) {
+			externalPowers.invalidate(pos.asLong(), 2);
+		}
+		if (persistentGraph) {
+			Node node = nodes.get(pos);
+
+			if (node != null) {
+				node.invalid = true;
+			}
+		}
+	}
+
+	/**
+	 * This method should be called whenever a chunk is unloaded. Nodes in that
+	 * chunk are removed from the persistent graph, as there is no way to keep
+	 * them valid while the chunk is not loaded.
+	 */
+	public void onChunkUnloaded(ChunkPos pos) {
+		if (cacheExternalPower) {
+			externalPowers.invalidateChunk(pos);
+		}
+		if (persistentGraph && !updating) {
+			long chunk = pos.toLong();
+
+			if (chunks.removeChunk(chunk)) {
+				evictedChunks.add(chunk);
+				nodes.removeChunks(evictedChunkTester, nodeReleaser);
+				evictedChunks.clear();
+			}
+		}
+	}
+
 	/**
 	 * The nodes map is a snapshot of the state of the world. It becomes invalid
 	 * when power changes are carried out, since the block and shape updates can
 	 * lead to block changes. If these block changes cause the network to be updated
 	 * again every node must be invalidated, and revalidated before it is used
 	 * again. This ensures the power calculations of the network are accurate.
+	 * Rather than marking each node, the graph moves on to a new generation, so
+	 * that this is cheap no matter how large the graph is.
 	 */
 	private void invalidate() {
-		if (updating && !nodes.isEmpty()) {
-			Iterator<Entry<Node>> it = Long2ObjectMaps.fastIterator(nodes);
+		signalStamp++;
 
-			while (it.hasNext()) {
-				Entry<Node> entry = it.next();
-				Node node = entry.getValue();
+		if (updating) {
+			generation++;
+		}
+	}
 
-				node.invalid = true;
+	/**
+	 * Check whether the given node was invalidated, either explicitly, or as part
+	 * of a previous generation of the graph.
+	 */
+	private boolean isInvalid(Node node) {
+		return node.invalid || node.generation != generation;
+	}
+
+	/**
+	 * Check, without building any nodes, whether the wire at the given position
+	 * would change power level or break if it were updated. This mirrors the
+	 * power calculations in {@link #findRoot(WireNode, int) findRoot}.
+	 */
+	private boolean needsPowerChange(BlockPos pos, BlockState state) {
+		if (!state.canSurvive(level, pos)) {
+			return true;
+		}
+
+		int currentPower = state.getValue(RedStoneWireBlock.POWER);
+		int power = getExternalPower(pos.asLong());
+
+		if (power < (POWER_MAX - POWER_STEP)) {
+			power = Math.max(power, getWirePower(pos.asLong()) - POWER_STEP);
+		}
+
+		return power != currentPower;
+	}
+
+	/**
+	 * Determine the redstone signal the wire at the given position receives from
+	 * non-wire components.
+	 */
+	private int getExternalPower(long pos) {
+		if (!sections.hasSignalSourcesNear(pos)) {
+			return POWER_MIN;
+		}
+
+		int power = POWER_MIN;
+
+		for (int iDir = 0; iDir < Directions.ALL.length; iDir++) {
+			long neighborPos = BlockPos.offset(pos, Directions.ALL[iDir]);
+			BlockState neighborState = sections.getBlockState(neighborPos);
+			int flags = BlockStateTable.flags(neighborState);
+
+			// Power from wires is handled separately.
+			if ((flags & BlockStateTable.WIRE) != 0) {
+				continue;
 			}
+
+			if (isConductor(neighborState, flags, neighborPos)) {
+				power = Math.max(power, getDirectSignalTo(neighborPos));
+			}
+			if ((flags & BlockStateTable.SOURCE) != 0) {
+				power = Math.max(power, getSignal(neighborState, neighborPos, iDir));
+			}
+
+			if (power >= POWER_MAX) {
+				return POWER_MAX;
+			}
+		}
+
+		return power;
+	}
+
+	/**
+	 * Determine the direct signal the conductor at the given position receives
+	 * from non-wire components.
+	 */
+	private int getDirectSignalTo(long pos) {
+		int power = POWER_MIN;
+
+		for (int iDir = 0; iDir < Directions.ALL.length; iDir++) {
+			long neighborPos = BlockPos.offset(pos, Directions.ALL[iDir]);
+			BlockState neighborState = sections.getBlockState(neighborPos);
+			int flags = BlockStateTable.flags(neighborState);
+
+			if ((flags & (BlockStateTable.SOURCE | BlockStateTable.WIRE)) == BlockStateTable.SOURCE) {
+				power = Math.max(power, getDirectSignal(neighborState, neighborPos, iDir));
+
+				if (power >= POWER_MAX) {
+					return POWER_MAX;
+				}
+			}
+		}
+
+		return power;
+	}
+
+	/**
+	 * Determine the highest power level of the wires that can provide power to the
+	 * wire at the given position. This mirrors how connections are found in
+	 * {@link alternate.current.wire.WireConnectionManager#set
+	 * WireConnectionManager.set}.
+	 */
+	private int getWirePower(long pos) {
+		int power = POWER_MIN;
+
+		long abovePos = BlockPos.offset(pos, Direction.UP);
+		BlockState aboveState = sections.getBlockState(abovePos);
+		boolean aboveIsConductor = isConductor(aboveState, BlockStateTable.flags(aboveState), abovePos);
+
+		for (int iDir = 0; iDir < Directions.HORIZONTAL.length; iDir++) {
+			long sidePos = BlockPos.offset(pos, Directions.HORIZONTAL[iDir]);
+			BlockState sideState = sections.getBlockState(sidePos);
+			int flags = BlockStateTable.flags(sideState);
+
+			if ((flags & BlockStateTable.WIRE) != 0) {
+				power = Math.max(power, sideState.getValue(RedStoneWireBlock.POWER));
+				continue;
+			}
+
+			boolean sideIsConductor = isConductor(sideState, flags, sidePos);
+
+			if (!sideIsConductor) {
+				power = Math.max(power, getWirePowerAt(BlockPos.offset(sidePos, Direction.DOWN)));
+			}
+			if (!aboveIsConductor && sideIsConductor) {
+				power = Math.max(power, getWirePowerAt(BlockPos.offset(sidePos, Direction.UP)));
+			}
+		}
+
+		return power;
+	}
+
+	private int getWirePowerAt(long pos) {
+		BlockState state = sections.getBlockState(pos);
+		return state.is(Blocks.REDSTONE_WIRE) ? state.getValue(RedStoneWireBlock.POWER) : POWER_MIN;
+	}
+
+	private boolean isConductor(BlockState state, int flags, long pos) {
+		if ((flags & BlockStateTable.POSITIONAL) != 0) {
+			return state.isRedstoneConductor(level, signalPos.set(pos));
 		}
+
+		return (flags & BlockStateTable.CONDUCTOR) != 0;
 	}
 
 	/**
@@ -543,7 +953,7 @@ public class WireHandler {
 
 		// If the wire at the given position is not in an invalid state
 		// we can exit early.
-		if (!wire.searched) {
+		if (!wire.is(WireNode.SEARCHED)) {
 			return;
 		}
 
@@ -585,7 +995,7 @@ public class WireHandler {
 	 */
 	private void findRoot(WireNode wire, int iDiscoveryDir) {
 		// Each wire only needs to be checked once.
-		if (wire.discovered) {
+		if (wire.is(WireNode.DISCOVERED)) {
 			return;
 		}
 
@@ -609,21 +1019,26 @@ public class WireHandler {
 	 * - Find connections to neighboring wires.
 	 */
 	private void discover(WireNode wire) {
-		if (wire.discovered) {
+		if (wire.is(WireNode.DISCOVERED)) {
 			return;
 		}
 
-		wire.discovered = true;
-		wire.searched = false;
+		wire.mark(WireNode.DISCOVERED);
+		wire.unmark(WireNode.SEARCHED);
 
-		if (!wire.removed && !wire.shouldBreak && !wire.state.canSurvive(level, wire.pos)) {
-			wire.shouldBreak = true;
+		if (persistentGraph) {
+			discovered.add(wire);
+			chunks.touch(wire.pos);
+		}
+
+		if (!wire.is(WireNode.REMOVED | WireNode.SHOULD_BREAK) && !wire.state.canSurvive(level, wire.blockPos())) {
+			wire.mark(WireNode.SHOULD_BREAK);
 		}
 
 		wire.virtualPower = wire.currentPower;
 		wire.externalPower = POWER_MIN - 1;
 
-		wire.connections.set(this::getNeighbor);
+		wire.connections.set(neighborProvider);
 	}
 
 	/**
@@ -640,7 +1055,7 @@ public class WireHandler {
 		// If the wire is removed or going to break, its power level should always be
 		// the minimum value. This is because it (effectively) no longer exists, so
 		// cannot provide any power to neighboring wires.
-		if (wire.removed || wire.shouldBreak) {
+		if (wire.is(WireNode.REMOVED | WireNode.SHOULD_BREAK)) {
 			return;
 		}
 
@@ -657,20 +1072,16 @@ public class WireHandler {
 	 * and update the virtual power accordingly.
 	 */
 	private void findWirePower(WireNode wire, boolean ignoreSearched) {
-		wire.connections.forEach(connection -> {
-			if (!connection.accept) {
-				return;
-			}
-
-			WireNode neighbor = connection.wire;
+		wire.connections.forEachAccepting(ignoreSearched ? unsearchedWirePowerFinder : wirePowerFinder);
+	}
 
-			if (!ignoreSearched || !neighbor.searched) {
-				int power = Math.max(POWER_MIN, neighbor.virtualPower - POWER_STEP);
-				int iOpp = Directions.iOpposite(connection.iDir);
+	private void findWirePower(WireNode wire, WireNode neighbor, int iDir, boolean ignoreSearched) {
+		if (!ignoreSearched || !neighbor.is(WireNode.SEARCHED)) {
+			int power = Math.max(POWER_MIN, neighbor.virtualPower - POWER_STEP);
+			int iOpp = Directions.iOpposite(iDir);
 
-				wire.offerPower(power, iOpp);
-			}
-		});
+			wire.offerPower(power, iOpp);
+		}
 	}
 
 	/**
@@ -681,22 +1092,51 @@ public class WireHandler {
 		// If the wire is removed or going to break, its power level should always be
 		// the minimum value. Thus external power need not be computed.
 		// In other cases external power need only be computed once.
-		if (wire.removed || wire.shouldBreak || wire.externalPower >= POWER_MIN) {
+		if (wire.is(WireNode.REMOVED | WireNode.SHOULD_BREAK) || wire.externalPower >= POWER_MIN) {
 			return;
 		}
 
-		wire.externalPower = getExternalPower(wire);
+		wire.externalPower = cacheExternalPower ? getCachedExternalPower(wire) : getExternalPower(wire);
 
 		if (wire.externalPower > wire.virtualPower) {
 			wire.virtualPower = wire.externalPower;
 		}
 	}
 
+	/**
+	 * Look up the external power of the given wire in the cache, and compute it
+	 * if it is not there.
+	 */
+	private int getCachedExternalPower(WireNode wire) {
+		int power = externalPowers.get(wire.pos);
+
+		if (power >= POWER_MIN) {
+			metrics.externalPowerCacheHits++;
+			return power;
+		}
+
+		metrics.externalPowerCacheMisses++;
+
+		power = getExternalPower(wire);
+		externalPowers.put(wire.pos, power);
+
+		return power;
+	}
+
 	/**
 	 * Determine the redstone signal the given wire receives from non-wire
 	 * components.
 	 */
 	private int getExternalPower(WireNode wire) {
+		// Most wires are not near any signal sources at all, in which case there
+		// is no need to query each neighbor.
+		if (!sections.hasSignalSourcesNear(wire.pos)) {
+			metrics.externalPowerSkipped++;
+			return POWER_MIN;
+		}
+
+		metrics.externalPowerProbed++;
+
 		int power = POWER_MIN;
 
 		for (int iDir = 0; iDir < Directions.ALL.length; iDir++) {
@@ -713,7 +1153,7 @@ public class WireHandler {
 				power = Math.max(power, getDirectSignalTo(wire, neighbor));
 			}
 			if (neighbor.isSignalSource()) {
-				power = Math.max(power, neighbor.state.getSignal(level, neighbor.pos, Directions.ALL[iDir]));
+				power = Math.max(power, getSignalFrom(neighbor, iDir));
 			}
 
 			if (power >= POWER_MAX) {
@@ -729,13 +1169,28 @@ public class WireHandler {
 	 * through the given conductor node.
 	 */
 	private int getDirectSignalTo(WireNode wire, Node node) {
+		// The direct signal a conductor receives does not depend on the wire
+		// that asks for it, so it is shared by all wires around the conductor.
+		checkSignalMemo(node);
+
+		if (node.directSignalIn >= 0) {
+			metrics.directSignalMemoHits++;
+			return node.directSignalIn;
+		}
+
+		metrics.directSignalMemoMisses++;
+
+		return node.directSignalIn = findDirectSignalTo(node);
+	}
+
+	private int findDirectSignalTo(Node node) {
 		int power = POWER_MIN;
 
 		for (int iDir = 0; iDir < Directions.ALL.length; iDir++) {
 			Node neighbor = getNeighbor(node, iDir);
 
 			if (neighbor.isSignalSource()) {
-				power = Math.max(power, neighbor.state.getDirectSignal(level, neighbor.pos, Directions.ALL[iDir]));
+				power = Math.max(power, getDirectSignal(neighbor.state, neighbor.pos, iDir));
 
 				if (power >= POWER_MAX) {
 					return POWER_MAX;
@@ -746,11 +1201,64 @@ public class WireHandler {
 		return power;
 	}
 
+	/**
+	 * Determine the signal the given signal source emits in the given direction.
+	 */
+	private int getSignalFrom(Node node, int iDir) {
+		checkSignalMemo(node);
+
+		int shift = 5 * iDir;
+		int memo = (node.signals >>> shift) & 0b11111;
+
+		if (memo != 0) {
+			metrics.signalMemoHits++;
+			return memo - 1;
+		}
+
+		metrics.signalMemoMisses++;
+
+		int signal = getSignal(node.state, node.pos, iDir);
+
+		if (signal >= POWER_MIN && signal <= POWER_MAX) {
+			node.signals |= (signal + 1) << shift;
+		}
+
+		return signal;
+	}
+
+	/**
+	 * Query the signal the given block state at the given position emits in the
+	 * given direction. The position is handed to the block as a mutable position,
+	 * so that it does not need to be allocated.
+	 */
+	private int getSignal(BlockState state, long pos, int iDir) {
+		return state.getSignal(level, signalPos.set(pos), Directions.ALL[iDir]);
+	}
+
+	/**
+	 * Query the direct signal the given block state at the given position emits
+	 * in the given direction.
+	 */
+	private int getDirectSignal(BlockState state, long pos, int iDir) {
+		return state.getDirectSignal(level, signalPos.set(pos), Directions.ALL[iDir]);
+	}
+
+	/**
+	 * Discard the signals memoized on the given node if they are out of date.
+	 */
+	private void checkSignalMemo(Node node) {
+		if (node.signalStamp != signalStamp) {
+			node.signalStamp = signalStamp;
+			node.signals = 0;
+			node.directSignalIn = -1;
+		}
+	}
+
 	/**
 	 * Check if the given wire needs to update its state in the world.
 	 */
 	private boolean needsUpdate(WireNode wire) {
-		return wire.removed || wire.shouldBreak || wire.virtualPower != wire.currentPower;
+		return wire.is(WireNode.REMOVED | WireNode.SHOULD_BREAK) || wire.virtualPower != wire.currentPower;
 	}
 
 	/**
@@ -775,8 +1283,8 @@ public class WireHandler {
 	private void search(WireNode wire, boolean root, int iBackupFlowDir) {
 		search.offer(wire);
 
-		wire.root = root;
-		wire.searched = true;
+		wire.unmark(WireNode.ROOT);
+		wire.mark(root ? (WireNode.ROOT | WireNode.SEARCHED) : WireNode.SEARCHED);
 		// Normally the flow is not set until the power level is updated. However,
 		// in networks with multiple power sources the update order between them
 		// depends on which was discovered first. To make this less prone to
@@ -791,8 +1299,163 @@ public class WireHandler {
 			update();
 		}
 		if (!updating) {
-			nodes.clear();
-			nodeCount = 0;
+			if (persistentGraph) {
+				resetWires();
+				releaseDroppedNodes();
+				evictNodes(config.getPersistentGraphCapacity());
+			} else {
+				clearNodes();
+			}
+
+			sections.clear();
+		}
+	}
+
+	/**
+	 * Check if the persistent graph was toggled since the last network update. If
+	 * it was, all nodes are discarded.
+	 */
+	private void checkPersistentGraph() {
+		if (!updating && persistentGraph != config.getPersistentGraph()) {
+			clearNodes();
+			persistentGraph = !persistentGraph;
+		}
+	}
+
+	/**
+	 * Check if the external power cache was enabled or disabled. While it is
+	 * disabled, block changes are not tracked, so it is cleared either way.
+	 */
+	private void checkExternalPowerCache() {
+		if (cacheExternalPower != config.getExternalPowerCache()) {
+			externalPowers.clear();
+			cacheExternalPower = !cacheExternalPower;
+		}
+	}
+
+	/**
+	 * Prepare for a network update, or for checking whether one is needed. Chunks
+	 * may have been unloaded since the last update, so cached chunk sections are
+	 * discarded. The persistent graph moves on to a new generation, so that every
+	 * node is checked against the mod count of its chunk section before it is
+	 * used again.
+	 */
+	private void enter() {
+		if (!updating) {
+			sections.clear();
+			checkPersistentGraph();
+			checkExternalPowerCache();
+
+			if (persistentGraph) {
+				generation++;
+			}
+		}
+	}
+
+	private void clearNodes() {
+		nodes.clear();
+		nodeCount = 0;
+		wireCount = 0;
+
+		chunks.clear();
+		discovered.clear();
+		droppedNodes.clear();
+	}
+
+	/**
+	 * Reset the wires that were discovered during the last network update, so
+	 * that they are in a fresh state the next time they are used.
+	 */
+	private void resetWires() {
+		for (int index = 0; index < discovered.size(); index++) {
+			discovered.get(index).reset();
+		}
+
+		discovered.clear();
+	}
+
+	/**
+	 * Release the nodes that were dropped from the graph during the last network
+	 * update. This is not done right away, as they could still be queued.
+	 */
+	private void releaseDroppedNodes() {
+		for (int index = 0; index < droppedNodes.size(); index++) {
+			releaseNode(droppedNodes.get(index));
+		}
+
+		droppedNodes.clear();
+	}
+
+	/**
+	 * If the persistent graph has grown beyond the given capacity, evict the least
+	 * recently used chunks. Chunks are evicted until the graph is at three quarters
+	 * of its capacity, so that this does not need to happen after every update.
+	 */
+	private void evictNodes(int capacity) {
+		if (chunks.total() <= capacity) {
+			return;
+		}
+
+		int target = capacity - (capacity >> 2);
+
+		while (chunks.total() > target) {
+			evictedChunks.add(chunks.evict());
+		}
+
+		nodes.removeChunks(evictedChunkTester, nodeReleaser);
+		evictedChunks.clear();
+	}
+
+	private boolean isEvicted(long chunk) {
+		return evictedChunks.contains(chunk);
+	}
+
+	/**
+	 * Unlink the given node from the graph and add it to the free nodes, so that
+	 * it can be re-used. Its neighbors no longer link to it, and a wire drops its
+	 * connections, so no stale references to or from it are followed once it is
+	 * re-used.
+	 */
+	private void releaseNode(Node node) {
+		unlinkNode(node);
+
+		if (node.isWire()) {
+			WireNode wire = node.asWire();
+			wire.connections.clear();
+
+			if (freeWireCount == freeWires.length) {
+				freeWires = Arrays.copyOf(freeWires, freeWires.length << 1);
+			}
+
+			freeWires[freeWireCount++] = wire;
+		} else {
+			if (freeNodeCount == freeNodes.length) {
+				freeNodes = Arrays.copyOf(freeNodes, freeNodes.length << 1);
+			}
+
+			freeNodes[freeNodeCount++] = node;
+		}
+	}
+
+	/**
+	 * Invalidate the given node and remove the links between it and its neighbors,
+	 * so that it can no longer be reached from the rest of the graph.
+	 */
+	private void unlinkNode(Node node) {
+		node.invalid = true;
+
+		for (int iDir = 0; iDir < Directions.ALL.length; iDir++) {
+			Node neighbor = node.neighbors[iDir];
+
+			if (neighbor != null) {
+				int iOpp = Directions.iOpposite(iDir);
+
+				if (neighbor.neighbors[iOpp] == node) {
+					neighbor.neighbors[iOpp] = null;
+				}
+
+				node.neighbors[iDir] = null;
+			}
 		}
 	}
 
@@ -844,6 +1507,12 @@ public class WireHandler {
 			// out power changes until the world is reloaded.
 			updating = false;
 
+			// The persistent graph could be left in an inconsistent state, so it
+			// is safest to discard it.
+			if (persistentGraph) {
+				clearNodes();
+			}
+
 			throw t;
 //		} finally {
 //			profiler.pop();
@@ -857,34 +1526,32 @@ public class WireHandler {
 	 * neighbors can be searched next.
 	 */
 	private void searchNetwork() {
-		for (WireNode wire : search) {
+		// Wires are added to the end of the queue while it is being iterated
+		// over, so walk the links directly rather than polling the queue.
+		for (WireNode wire = search.peek(); wire != null; wire = wire.next_wire) {
 			// The order in which wires are searched will influence the order in
 			// which they update their power levels.
-			wire.connections.forEach(connection -> {
-				if (!connection.offer) {
-					return;
-				}
-
-				WireNode neighbor = connection.wire;
+			wire.connections.forEachOffering(neighborSearcher, config.getUpdateOrder(), wire.iFlowDir);
+		}
+	}
 
-				if (neighbor.searched) {
-					return;
-				}
+	private void searchNeighbor(WireNode wire, WireNode neighbor, int iDir) {
+		if (neighbor.is(WireNode.SEARCHED)) {
+			return;
+		}
 
-				discover(neighbor);
-				findPower(neighbor, false);
+		discover(neighbor);
+		findPower(neighbor, false);
 
-				// If power from neighboring wires has decreased, check for power
-				// from non-wire components so as to determine how low power can
-				// fall.
-				if (neighbor.virtualPower < neighbor.currentPower) {
-					findExternalPower(neighbor);
-				}
+		// If power from neighboring wires has decreased, check for power
+		// from non-wire components so as to determine how low power can
+		// fall.
+		if (neighbor.virtualPower < neighbor.currentPower) {
+			findExternalPower(neighbor);
+		}
 
-				if (needsUpdate(neighbor)) {
-					search(neighbor, false, connection.iDir);
-				}
-			}, config.getUpdateOrder(), wire.iFlowDir);
+		if (needsUpdate(neighbor)) {
+			search(neighbor, false, iDir);
 		}
 	}
 
@@ -897,7 +1564,7 @@ public class WireHandler {
 			WireNode wire = search.poll();
 			findPower(wire, true);
 
-			if (wire.root || wire.removed || wire.shouldBreak || wire.virtualPower > POWER_MIN) {
+			if (wire.is(WireNode.ROOT | WireNode.REMOVED | WireNode.SHOULD_BREAK) || wire.virtualPower > POWER_MIN) {
 				queueWire(wire);
 			} else {
 				// Wires that do not receive any power do not queue power changes
@@ -935,27 +1602,15 @@ public class WireHandler {
 					continue;
 				}
 
-				findPowerFlow(wire);
-				transmitPower(wire);
-
-				if (wire.setPower()) {
-					queueNeighbors(wire);
-
-					// If the wire was newly placed or removed, shape updates have
-					// already been emitted. However, unlike before 1.19, neighbor
-					// updates are now queued, so to preserve behavior parity with
-					// previous versions, we emit extra shape updates here to
-					// notify neighboring observers.
-					updateNeighborShapes(wire);
-				}
+				solvePower(wire);
+				emitPowerChange(wire);
 			} else {
 				WireNode neighborWire = node.neighborWire;
 
 				if (neighborWire != null) {
-					BlockPos neighborPos = neighborWire.pos;
 					Block neighborBlock = neighborWire.state.getBlock();
 
-					updateBlock(node, neighborPos, neighborBlock);
+					updateBlock(node, neighborBlock);
 				}
 			}
 		}
@@ -963,6 +1618,34 @@ public class WireHandler {
 		updating = false;
 	}
 
+	/**
+	 * Settle the power of the given wire: determine its flow direction and pass
+	 * its power on to connected wires. This only changes the state of the graph,
+	 * not the level. See {@link WireNode#offerPower} for why this is not done for
+	 * all wires up front.
+	 */
+	private void solvePower(WireNode wire) {
+		findPowerFlow(wire);
+		transmitPower(wire);
+	}
+
+	/**
+	 * Set the new power level of the given wire in the level, and queue updates to
+	 * neighboring blocks.
+	 */
+	private void emitPowerChange(WireNode wire) {
+		if (wire.setPower(sections, config.getNeighborUpdateElision(), shapePos)) {
+			queueNeighbors(wire);
+
+			// If the wire was newly placed or removed, shape updates have
+			// already been emitted. However, unlike before 1.19, neighbor
+			// updates are now queued, so to preserve behavior parity with
+			// previous versions, we emit extra shape updates here to
+			// notify neighboring observers.
+			updateNeighborShapes(wire);
+		}
+	}
+
 	/**
 	 * Use the information of incoming power flow to determine the direction of
 	 * power flow through this wire. If that flow is ambiguous, try to use a flow
@@ -985,27 +1668,22 @@ public class WireHandler {
 	 * those wires.
 	 */
 	private void transmitPower(WireNode wire) {
-		wire.connections.forEach(connection -> {
-			if (!connection.offer) {
-				return;
-			}
-
-			WireNode neighbor = connection.wire;
+		wire.connections.forEachOffering(powerTransmitter, config.getUpdateOrder(), wire.iFlowDir);
+	}
 
-			int power = Math.max(POWER_MIN, wire.virtualPower - POWER_STEP);
-			int iDir = connection.iDir;
+	private void transmitPower(WireNode wire, WireNode neighbor, int iDir) {
+		int power = Math.max(POWER_MIN, wire.virtualPower - POWER_STEP);
 
-			if (neighbor.offerPower(power, iDir)) {
-				queueWire(neighbor);
-			}
-		}, config.getUpdateOrder(), wire.iFlowDir);
+		if (neighbor.offerPower(power, iDir)) {
+			queueWire(neighbor);
+		}
 	}
 
 	/**
 	 * Emit shape updates around the given wire.
 	 */
 	private void updateNeighborShapes(WireNode wire) {
-		BlockPos wirePos = wire.pos;
+		BlockPos wirePos = wire.blockPos();
 		BlockState wireState = wire.state;
 
 		for (int iDir : SHAPE_UPDATE_ORDER) {
@@ -1016,24 +1694,34 @@ public class WireHandler {
 			// The current block state at this position *could* be wrong, but if you somehow
 			// manage to place a block where air used to be during the execution of a shape
 			// update I am very impressed and you deserve to have some broken behavior.
+			// Blocks that do not override updateShape return their own state, so
+			// shape updates to them are skipped too. Unlike the air check, that
+			// one is done against the current block state, since the update
+			// order makes it quite possible for the cached state to be stale.
 			if (!neighbor.isWire() && !neighbor.state.isAir()) {
-				int iOpp = Directions.iOpposite(iDir);
-				Direction opp = Directions.ALL[iOpp];
+				if (config.getNeighborUpdateElision() && (BlockStateTable.flags(sections.getBlockState(neighbor.pos)) & BlockStateTable.SHAPE_INERT) != 0) {
+					metrics.shapeUpdatesElided++;
+				} else {
+					metrics.shapeUpdatesSent++;
+
+					int iOpp = Directions.iOpposite(iDir);
+					Direction opp = Directions.ALL[iOpp];
 
-				updateShape(neighbor, opp, wirePos, wireState);
+					updateShape(neighbor, opp, wirePos, wireState);
+				}
 			}
 		}
 	}
 
 	private void updateShape(Node node, Direction dir, BlockPos neighborPos, BlockState neighborState) {
-		neighborUpdater.shapeUpdate(dir, neighborState, node.pos, neighborPos, Block.UPDATE_CLIENTS, 512);
+		neighborUpdater.shapeUpdate(dir, neighborState, node.blockPos(), neighborPos, Block.UPDATE_CLIENTS, 512);
 	}
 
 	/**
 	 * Queue block updates to nodes around the given wire.
 	 */
 	private void queueNeighbors(WireNode wire) {
-		config.getUpdateOrder().forEachNeighbor(this::getNeighbor, wire, wire.iFlowDir, neighbor -> queueNeighbor(neighbor, wire));
+		config.getUpdateOrder().forEachNeighbor(neighborProvider, wire, wire.iFlowDir, neighborQueuer);
 	}
 
 	/**
@@ -1054,7 +1742,7 @@ public class WireHandler {
 		// The current block state at this position *could* be wrong, but if you somehow
 		// manage to place a block where air used to be during the execution of a block
 		// update I am very impressed and you deserve to have some broken behavior.
-		if (!node.isWire() && !node.state.isAir()) {
+		if (!node.isWire() && node.reactsToNeighborUpdates()) {
 			node.neighborWire = neighborWire;
 			updates.offer(node);
 		}
@@ -1077,10 +1765,23 @@ public class WireHandler {
 	/**
 	 * Emit a block update to the given node.
 	 */
-	private void updateBlock(Node node, BlockPos neighborPos, Block neighborBlock) {
+	private void updateBlock(Node node, Block neighborBlock) {
+		// Blocks that do not override neighborChanged do nothing but read the
+		// block state when they receive a block update, so those updates can be
+		// skipped without changing the order of the other updates. The block at
+		// this position may have changed since the update was queued, so the
+		// current block state is checked. Mods that hook into the base
+		// implementation cannot be detected, so this is opt-in.
+		if (config.getNeighborUpdateElision() && (BlockStateTable.flags(sections.getBlockState(node.pos)) & BlockStateTable.INERT) != 0) {
+			metrics.neighborUpdatesElided++;
+			return;
+		}
+
+		metrics.neighborUpdatesSent++;
+
 		// redstone wire is the only block that uses the neighborChanged orientation
 		// so leaving it as null should not be an issue
-		neighborUpdater.neighborChanged(node.pos, neighborBlock, null);
+		neighborUpdater.neighborChanged(node.blockPos(), neighborBlock, null);
 	}
 
 	@FunctionalInterface
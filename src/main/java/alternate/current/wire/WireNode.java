@@ -1,6 +1,8 @@
 package alternate.current.wire;
 
-import net.minecraft.core.BlockPos;
+import java.util.Arrays;
+
+import net.minecraft.core.BlockPos.MutableBlockPos;
 import net.minecraft.server.level.ServerLevel;
 import net.minecraft.util.Mth;
 import net.minecraft.world.level.block.Block;
@@ -18,6 +20,14 @@ import net.minecraft.world.level.redstone.Redstone;
  */
 public class WireNode extends Node {
 
+	// flags that encode the status of the wire during a network update
+	static final int ADDED        = 0b000001;
+	static final int REMOVED      = 0b000010;
+	static final int SHOULD_BREAK = 0b000100;
+	static final int ROOT         = 0b001000;
+	static final int DISCOVERED   = 0b010000;
+	static final int SEARCHED     = 0b100000;
+
 	final WireConnectionManager connections;
 
 	/** The power level this wire currently holds in the world. */
@@ -36,31 +46,41 @@ public class WireNode extends Node {
 	int flowIn;
 	/** The direction of power flow, based on the incoming flow. */
 	int iFlowDir;
-	boolean added;
-	boolean removed;
-	boolean shouldBreak;
-	boolean root;
-	boolean discovered;
-	boolean searched;
+	/** Bit flags that encode the status of this wire. */
+	int status;
 
 	/** The next wire in the simple queue. */
 	WireNode next_wire;
 
-	WireNode(ServerLevel level, BlockPos pos, BlockState state) {
+	WireNode(ServerLevel level) {
 		super(level);
 
-		this.pos = pos.immutable();
+		this.connections = new WireConnectionManager(this);
+	}
+
+	@Override
+	WireNode set(long pos, BlockState state, boolean clearNeighbors) {
+		if (!state.is(Blocks.REDSTONE_WIRE)) {
+			throw new IllegalStateException("Cannot update a WireNode to a regular Node!");
+		}
+
+		if (clearNeighbors) {
+			Arrays.fill(neighbors, null);
+		}
+
+		this.setPos(pos);
 		this.state = state;
+		this.invalid = false;
 
-		this.connections = new WireConnectionManager(this);
+		this.connections.clear();
 
-		this.virtualPower = this.currentPower = this.state.getValue(RedStoneWireBlock.POWER);
+		this.currentPower = this.state.getValue(RedStoneWireBlock.POWER);
+		this.externalPower = 0;
+
+		this.reset();
 		this.priority = priority();
-	}
 
-	@Override
-	Node set(BlockPos pos, BlockState state, boolean clearNeighbors) {
-		throw new UnsupportedOperationException("Cannot update a WireNode!");
+		return this;
 	}
 
 	@Override
@@ -78,8 +98,47 @@ public class WireNode extends Node {
 		return this;
 	}
 
+	/**
+	 * Reset the information that is only valid during a single network update, so
+	 * that this wire can be re-used in the next update as if it were new.
+	 */
+	void reset() {
+		connections.clear();
+
+		virtualPower = currentPower;
+		flowIn = 0;
+		iFlowDir = 0;
+		status = 0;
+	}
+
+	/**
+	 * Check whether any of the given status flags are set.
+	 */
+	boolean is(int flags) {
+		return (status & flags) != 0;
+	}
+
+	void mark(int flags) {
+		status |= flags;
+	}
+
+	void unmark(int flags) {
+		status &= ~flags;
+	}
+
+	/**
+	 * Offer power to this wire from the given direction. Returns whether the
+	 * power of this wire increased, in which case it must be queued for a power
+	 * change. Offers of equal power only add to the incoming flow, which later
+	 * determines the order of this wire's updates. The order in which wires are
+	 * updated thus follows from power being raised one offer at a time, and
+	 * cannot be reproduced from final power levels alone. Nor can those levels
+	 * be settled before any changes are emitted, since block updates emitted by
+	 * one wire can cause nested updates that change the power of wires that are
+	 * still queued.
+	 */
 	boolean offerPower(int power, int iDir) {
-		if (removed || shouldBreak) {
+		if (is(REMOVED | SHOULD_BREAK)) {
 			return false;
 		}
 		if (power == virtualPower) {
@@ -96,27 +155,27 @@ public class WireNode extends Node {
 		return false;
 	}
 
-	boolean setPower() {
-		if (removed) {
+	boolean setPower(SectionCache sections, boolean elideShapeUpdates, MutableBlockPos neighborPos) {
+		if (is(REMOVED)) {
 			return true;
 		}
 
-		state = level.getBlockState(pos);
+		state = sections.getBlockState(pos);
 
 		if (!state.is(Blocks.REDSTONE_WIRE)) {
 			return false; // we should never get here
 		}
 
-		if (shouldBreak) {
-			Block.dropResources(state, level, pos);
-			level.setBlock(pos, Blocks.AIR.defaultBlockState(), Block.UPDATE_CLIENTS);
+		if (is(SHOULD_BREAK)) {
+			Block.dropResources(state, level, blockPos());
+			level.setBlock(blockPos(), Blocks.AIR.defaultBlockState(), Block.UPDATE_CLIENTS);
 
 			return true;
 		}
 
 		currentPower = Mth.clamp(virtualPower, Redstone.SIGNAL_MIN, Redstone.SIGNAL_MAX);
-		state = state.setValue(RedStoneWireBlock.POWER, currentPower);
+		state = BlockStateTable.withPower(state, currentPower);
 
-		return LevelHelper.setWireState(level, pos, state, added);
+		return LevelHelper.setWireState(level, sections, blockPos(), state, is(ADDED), elideShapeUpdates, neighborPos);
 	}
 }